@@ -0,0 +1,191 @@
+package com.fileupload.app.config;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Asynchronous audit trail for authentication events.
+ *
+ * Request threads only sample, allocate one event and claim a slot in a
+ * bounded lock-free ring buffer; a single background thread drains the buffer
+ * into the {@code auth.audit} logger. When the buffer is full events are
+ * dropped and counted rather than blocking the request.
+ */
+@Component
+public class AuthAuditLog implements InitializingBean, DisposableBean {
+
+    private static final Logger AUDIT = LoggerFactory.getLogger("auth.audit");
+
+    public enum EventType {
+        LOGIN_SUCCESS,
+        LOGIN_FAILURE,
+        TOKEN_REJECTED,
+        AUTHORITIES_MAPPED
+    }
+
+    @Value("${app.audit.enabled:true}")
+    private volatile boolean enabled;
+
+    @Value("${app.audit.verbose:false}")
+    private volatile boolean verbose;
+
+    @Value("${app.audit.capacity:8192}")
+    private int capacity;
+
+    @Value("#{${app.audit.sample-rates:{:}}}")
+    private Map<String, Double> configuredSampleRates;
+
+    private volatile double[] sampleRates;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+    private AtomicReferenceArray<Event> slots;
+    private int mask;
+    private volatile boolean running;
+    private Thread writer;
+
+    @Override
+    public void afterPropertiesSet() {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        slots = new AtomicReferenceArray<>(size);
+        mask = size - 1;
+        double[] rates = new double[EventType.values().length];
+        for (EventType type : EventType.values()) {
+            rates[type.ordinal()] = configuredSampleRates.getOrDefault(type.name(), 1.0);
+        }
+        sampleRates = rates;
+
+        running = true;
+        writer = new Thread(this::drainLoop, "auth-audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.SECONDS.toMillis(2));
+    }
+
+    public boolean isVerbose() {
+        return verbose;
+    }
+
+    public void record(EventType type, String principal, Supplier<String> detail) {
+        if (!enabled) {
+            return;
+        }
+        double rate = sampleRates[type.ordinal()];
+        if (rate < 1.0 && ThreadLocalRandom.current().nextDouble() >= rate) {
+            return;
+        }
+        offer(new Event(type, System.currentTimeMillis(), principal, detail == null ? null : detail.get()));
+    }
+
+    private void offer(Event event) {
+        while (true) {
+            long claimed = tail.get();
+            if (claimed - head.get() >= slots.length()) {
+                dropped.increment();
+                return;
+            }
+            if (tail.compareAndSet(claimed, claimed + 1)) {
+                slots.lazySet((int) claimed & mask, event);
+                if (claimed - head.get() == slots.length() / 2) {
+                    LockSupport.unpark(writer);
+                }
+                return;
+            }
+        }
+    }
+
+    private void drainLoop() {
+        while (running) {
+            if (drain() == 0) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50));
+            }
+        }
+        drain();
+    }
+
+    private int drain() {
+        int drained = 0;
+        long next = head.get();
+        Event event;
+        while ((event = slots.get((int) next & mask)) != null) {
+            slots.lazySet((int) next & mask, null);
+            head.lazySet(++next);
+            write(event);
+            drained++;
+        }
+        return drained;
+    }
+
+    private static void write(Event event) {
+        if (event.detail == null) {
+            AUDIT.info("event={} at={} principal={}", event.type, event.timestamp, event.principal);
+        } else {
+            AUDIT.info("event={} at={} principal={} detail={}", event.type, event.timestamp, event.principal, event.detail);
+        }
+    }
+
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", enabled);
+        status.put("verbose", verbose);
+        status.put("capacity", slots.length());
+        status.put("queued", tail.get() - head.get());
+        status.put("dropped", dropped.sum());
+        Map<EventType, Double> rates = new EnumMap<>(EventType.class);
+        for (EventType type : EventType.values()) {
+            rates.put(type, sampleRates[type.ordinal()]);
+        }
+        status.put("sampleRates", rates);
+        return status;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public void setVerbose(boolean verbose) {
+        this.verbose = verbose;
+    }
+
+    public synchronized void setSampleRate(EventType type, double rate) {
+        double[] rates = sampleRates.clone();
+        rates[type.ordinal()] = Math.max(0.0, Math.min(1.0, rate));
+        sampleRates = rates;
+    }
+
+    private static final class Event {
+
+        final EventType type;
+        final long timestamp;
+        final String principal;
+        final String detail;
+
+        Event(EventType type, long timestamp, String principal, String detail) {
+            this.type = type;
+            this.timestamp = timestamp;
+            this.principal = principal;
+            this.detail = detail;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.fileupload.app.config;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.springframework.core.ConfigurableObjectInputStream;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+/**
+ * Serializes session attributes with Java serialization and deflates values
+ * above a size threshold. Each value starts with a one-byte header telling
+ * whether it is compressed, so the threshold can change between deployments.
+ */
+public class CompactSessionSerializer implements RedisSerializer<Object> {
+
+    private static final byte PLAIN = 0;
+    private static final byte DEFLATED = 1;
+
+    private final ClassLoader classLoader;
+    private final int compressionThreshold;
+
+    public CompactSessionSerializer(ClassLoader classLoader, int compressionThreshold) {
+        this.classLoader = classLoader;
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    @Override
+    public byte[] serialize(Object value) {
+        if (value == null) {
+            return new byte[0];
+        }
+        try {
+            ByteArrayOutputStream plain = new ByteArrayOutputStream(256);
+            plain.write(PLAIN);
+            try (ObjectOutputStream out = new ObjectOutputStream(plain)) {
+                out.writeObject(value);
+            }
+            if (plain.size() <= compressionThreshold) {
+                return plain.toByteArray();
+            }
+
+            ByteArrayOutputStream deflated = new ByteArrayOutputStream(plain.size() / 2);
+            deflated.write(DEFLATED);
+            Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+            try (DeflaterOutputStream out = new DeflaterOutputStream(deflated, deflater)) {
+                byte[] bytes = plain.toByteArray();
+                out.write(bytes, 1, bytes.length - 1);
+            } finally {
+                deflater.end();
+            }
+            return deflated.toByteArray();
+        } catch (IOException ex) {
+            throw new SerializationException("Could not serialize session attribute " + value.getClass().getName(), ex);
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        InputStream body = new ByteArrayInputStream(bytes, 1, bytes.length - 1);
+        if (bytes[0] == DEFLATED) {
+            body = new InflaterInputStream(body);
+        }
+        try (ObjectInputStream in = new ConfigurableObjectInputStream(body, classLoader)) {
+            return in.readObject();
+        } catch (IOException | ClassNotFoundException ex) {
+            throw new SerializationException("Could not deserialize session attribute", ex);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.fileupload.app.config;
+
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import com.fileupload.app.dto.BatchUploadResponse;
+import com.fileupload.app.dto.FileInfo;
+import com.fileupload.app.dto.SignedLinkResponse;
+
+/**
+ * Native-image hints that Spring's AOT processing cannot infer: response DTOs
+ * nested in other payloads and the types Java-serialized into the session.
+ */
+@Configuration(proxyBeanMethods = false)
+@ImportRuntimeHints(NativeHints.Registrar.class)
+@RegisterReflectionForBinding({ FileInfo.class, BatchUploadResponse.class, SignedLinkResponse.class })
+public class NativeHints {
+
+    static class Registrar implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            // Session attributes are Java-serialized when app.session.store=redis
+            hints.serialization().registerType(CompactOidcUser.class);
+            hints.serialization().registerType(IndexedAuthority.class);
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.fileupload.app.config;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Per-principal request rate limits using the generic cell rate algorithm: each
+ * bucket is a single {@link AtomicLong} holding its theoretical arrival time,
+ * updated with CAS. Buckets live in a concurrent map and are evicted by a
+ * background sweep once idle long enough to be full again.
+ *
+ * The map never holds more than {@code max-buckets} buckets. Once it is full,
+ * clients without a bucket share one overflow bucket per rule until the next
+ * sweep frees room, so a flood of distinct clients is throttled as one
+ * instead of growing the map or scanning it on the request thread.
+ */
+@Slf4j
+@Component
+public class RequestRateLimiter implements InitializingBean, DisposableBean {
+
+    @Value("${app.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.rate-limit.default-per-minute:600}")
+    private long defaultPerMinute;
+
+    @Value("#{${app.rate-limit.paths:{:}}}")
+    private Map<String, Long> pathLimits;
+
+    @Value("#{${app.rate-limit.role-multipliers:{:}}}")
+    private Map<String, Double> roleMultipliers;
+
+    @Value("${app.rate-limit.burst-seconds:10}")
+    private long burstSeconds;
+
+    @Value("${app.rate-limit.max-buckets:100000}")
+    private int maxBuckets;
+
+    @Value("${app.rate-limit.authority-prefix:ROLE_}")
+    private String authorityPrefix;
+
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    // Reserved before a bucket is inserted, so concurrent inserts cannot overshoot the cap
+    private final AtomicInteger bucketCount = new AtomicInteger();
+    private final LongAdder overflowed = new LongAdder();
+    private List<Rule> rules;
+    private Rule defaultRule;
+    private ScheduledExecutorService sweeper;
+
+    @Override
+    public void afterPropertiesSet() {
+        PathPatternParser parser = PathPatternParser.defaultInstance;
+        List<Rule> parsed = new ArrayList<>();
+        pathLimits.forEach((pattern, perMinute) -> parsed.add(new Rule(parser.parse(pattern), perMinute)));
+        parsed.sort((a, b) -> PathPattern.SPECIFICITY_COMPARATOR.compare(a.pattern, b.pattern));
+        rules = Collections.unmodifiableList(parsed);
+        defaultRule = new Rule(null, defaultPerMinute);
+
+        sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rate-limit-sweep");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(this::evictIdle, 60, 60, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        sweeper.shutdownNow();
+    }
+
+    /**
+     * Admits or rejects one request from {@code client} to {@code path}.
+     */
+    public Decision acquire(String path, String client, Collection<? extends GrantedAuthority> authorities) {
+        if (!enabled) {
+            return null;
+        }
+        Rule rule = ruleFor(path);
+        long limit = Math.max(1, Math.round(rule.perMinute * multiplier(authorities)));
+        long interval = TimeUnit.MINUTES.toNanos(1) / limit;
+        long tolerance = interval * Math.max(0, limit * burstSeconds / 60 - 1);
+
+        AtomicLong bucket = bucket(rule, client);
+        long now = System.nanoTime();
+        while (true) {
+            long current = bucket.get();
+            long tat = Math.max(current, now);
+            if (tat - now > tolerance) {
+                long retryAfterNanos = tat - now - tolerance;
+                return new Decision(false, limit, 0, seconds(retryAfterNanos), seconds(tat - now));
+            }
+            long next = tat + interval;
+            if (bucket.compareAndSet(current, next)) {
+                long remaining = (tolerance - (next - now) + interval) / interval;
+                return new Decision(true, limit, Math.max(0, remaining), 0, seconds(next - now));
+            }
+        }
+    }
+
+    private Rule ruleFor(String path) {
+        if (!rules.isEmpty()) {
+            PathContainer container = PathContainer.parsePath(path);
+            for (Rule rule : rules) {
+                if (rule.pattern.matches(container)) {
+                    return rule;
+                }
+            }
+        }
+        return defaultRule;
+    }
+
+    private double multiplier(Collection<? extends GrantedAuthority> authorities) {
+        double multiplier = 1.0;
+        if (roleMultipliers.isEmpty()) {
+            return multiplier;
+        }
+        for (GrantedAuthority authority : authorities) {
+            String name = authority.getAuthority();
+            if (name.startsWith(authorityPrefix)) {
+                name = name.substring(authorityPrefix.length());
+            }
+            Double roleMultiplier = roleMultipliers.get(name);
+            if (roleMultiplier != null && roleMultiplier > multiplier) {
+                multiplier = roleMultiplier;
+            }
+        }
+        return multiplier;
+    }
+
+    private AtomicLong bucket(Rule rule, String client) {
+        String key = rule.key + client;
+        AtomicLong bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (bucketCount.incrementAndGet() > maxBuckets) {
+            bucketCount.decrementAndGet();
+            overflowed.increment();
+            return rule.overflow;
+        }
+        AtomicLong created = new AtomicLong(System.nanoTime());
+        bucket = buckets.putIfAbsent(key, created);
+        if (bucket != null) {
+            bucketCount.decrementAndGet();
+            return bucket;
+        }
+        return created;
+    }
+
+    /**
+     * A bucket whose arrival time has passed is full again and carries no
+     * state worth keeping.
+     */
+    private void evictIdle() {
+        long now = System.nanoTime();
+        int evicted = 0;
+        for (Map.Entry<String, AtomicLong> entry : buckets.entrySet()) {
+            if (entry.getValue().get() - now <= 0 && buckets.remove(entry.getKey(), entry.getValue())) {
+                bucketCount.decrementAndGet();
+                evicted++;
+            }
+        }
+        long overflowedRequests = overflowed.sumThenReset();
+        if (overflowedRequests > 0) {
+            log.warn("{} requests used the shared overflow bucket since the last sweep; {} buckets held, max-buckets is {}",
+                overflowedRequests, buckets.size(), maxBuckets);
+        }
+        log.debug("Evicted {} idle rate limit buckets", evicted);
+    }
+
+    private static long seconds(long nanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(nanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static final class Decision {
+
+        private final boolean allowed;
+        private final long limit;
+        private final long remaining;
+        private final long retryAfterSeconds;
+        private final long resetSeconds;
+    }
+
+    private static final class Rule {
+
+        final PathPattern pattern;
+        final long perMinute;
+        final String key;
+        final AtomicLong overflow = new AtomicLong(System.nanoTime());
+
+        Rule(PathPattern pattern, long perMinute) {
+            this.pattern = pattern;
+            this.perMinute = perMinute;
+            this.key = (pattern == null ? "*" : pattern.getPatternString()) + '|';
+        }
+    }
+}
@@ -1,168 +1,215 @@
 package com.fileupload.app.config;
 
-import java.util.ArrayList;
+import java.text.ParseException;
 import java.util.Arrays;
-import java.util.HashSet;
-import java.util.List;
+import java.util.Collection;
 import java.util.Map;
-import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.oauth2.client.oidc.userinfo.OidcUserRequest;
 import org.springframework.security.oauth2.client.oidc.userinfo.OidcUserService;
 import org.springframework.security.oauth2.client.userinfo.OAuth2UserService;
+import org.springframework.security.oauth2.client.web.HttpSessionOAuth2AuthorizedClientRepository;
+import org.springframework.security.oauth2.client.web.OAuth2AuthorizedClientRepository;
 import org.springframework.security.oauth2.core.oidc.user.DefaultOidcUser;
 import org.springframework.security.oauth2.core.oidc.user.OidcUser;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.web.BearerTokenAuthenticationEntryPoint;
+import org.springframework.security.web.AuthenticationEntryPoint;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
+import org.springframework.security.web.authentication.AuthenticationFailureHandler;
+import org.springframework.security.web.authentication.AuthenticationSuccessHandler;
+import org.springframework.security.web.authentication.SimpleUrlAuthenticationFailureHandler;
+import org.springframework.security.web.authentication.SimpleUrlAuthenticationSuccessHandler;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.JWTParser;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 @Configuration
 @EnableWebSecurity
-@EnableMethodSecurity
 public class SecurityConfig {
 
-    @Value("${spring.security.oauth2.resourceserver.jwt.jwk-set-uri}")
-    private String jwkSetUri;
-
     @Value("${app.landing-page-url}")
     private String landingPageUrl;
  
+    @Value("${app.security.slim-principal:false}")
+    private boolean slimPrincipal;
+
+    @Value("${app.session.cookie-name:SESSION}")
+    private String sessionCookieName;
+
+    private final JwtValidationCache jwtValidationCache;
+    private final RoleAuthorityMapper roleAuthorityMapper;
+    private final OidcSessionIndex oidcSessionIndex;
+    private final RequestRateLimiter requestRateLimiter;
+    private final AuthAuditLog authAuditLog;
+
+    public SecurityConfig(JwtValidationCache jwtValidationCache, RoleAuthorityMapper roleAuthorityMapper,
+                          OidcSessionIndex oidcSessionIndex, RequestRateLimiter requestRateLimiter,
+                          AuthAuditLog authAuditLog) {
+        this.jwtValidationCache = jwtValidationCache;
+        this.roleAuthorityMapper = roleAuthorityMapper;
+        this.oidcSessionIndex = oidcSessionIndex;
+        this.requestRateLimiter = requestRateLimiter;
+        this.authAuditLog = authAuditLog;
+    }
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .csrf(csrf -> csrf.disable())
+            .addFilterBefore(new RateLimitFilter(requestRateLimiter), AuthorizationFilter.class)
             .authorizeHttpRequests(auth -> auth
-                .requestMatchers("/api/public/**", "/actuator/**", "/error", "/login/**", "/oauth2/**").permitAll()
+                .requestMatchers("/actuator/prometheus", "/actuator/authaudit/**", "/actuator/loggers/**", "/actuator/jfr/**").hasAnyRole("admin", "ADMIN")
+                .requestMatchers("/api/public/**", "/actuator/**", "/error", "/login/**", "/oauth2/**", "/logout/backchannel").permitAll()
                 .anyRequest().authenticated()
             )
             .oauth2Login(oauth2 -> oauth2
                 .userInfoEndpoint(userInfo -> userInfo.oidcUserService(oidcUserService()))
-                .defaultSuccessUrl(landingPageUrl, true) // Redirect to frontend after successful login
-                .failureUrl("/login?error")
+                .successHandler(loginSuccessHandler(landingPageUrl)) // Redirect to frontend after successful login
+                .failureHandler(loginFailureHandler("/login?error"))
             )
             .oauth2ResourceServer(oauth2 -> oauth2
+                .authenticationEntryPoint(tokenRejectedEntryPoint())
                 .jwt(jwt -> jwt.jwtAuthenticationConverter(jwtAuthenticationConverter()))
             )
             .logout(logout -> logout
                 .logoutSuccessUrl("http://localhost:3000")
                 .invalidateHttpSession(true)
                 .clearAuthentication(true)
-                .deleteCookies("JSESSIONID")
+                .deleteCookies("JSESSIONID", sessionCookieName)
             );
 
         return http.build();
     }
 
+    /**
+     * Redirects like {@code defaultSuccessUrl(targetUrl, true)}, after recording
+     * the new session in the back-channel logout index.
+     */
+    private AuthenticationSuccessHandler loginSuccessHandler(String targetUrl) {
+        SimpleUrlAuthenticationSuccessHandler redirect = new SimpleUrlAuthenticationSuccessHandler(targetUrl);
+        redirect.setAlwaysUseDefaultTargetUrl(true);
+        return (request, response, authentication) -> {
+            if (authentication.getPrincipal() instanceof OidcUser oidcUser) {
+                oidcSessionIndex.register(request.getSession(), oidcUser);
+            }
+            authAuditLog.record(AuthAuditLog.EventType.LOGIN_SUCCESS, authentication.getName(),
+                authAuditLog.isVerbose() ? () -> String.valueOf(authentication.getAuthorities()) : null);
+            redirect.onAuthenticationSuccess(request, response, authentication);
+        };
+    }
+
+    private AuthenticationFailureHandler loginFailureHandler(String failureUrl) {
+        SimpleUrlAuthenticationFailureHandler redirect = new SimpleUrlAuthenticationFailureHandler(failureUrl);
+        return (request, response, exception) -> {
+            authAuditLog.record(AuthAuditLog.EventType.LOGIN_FAILURE, null, exception::getMessage);
+            redirect.onAuthenticationFailure(request, response, exception);
+        };
+    }
+
+    /**
+     * The resource server's default entry point, recording rejected bearer
+     * tokens; requests that simply carry no token are not audited.
+     */
+    private AuthenticationEntryPoint tokenRejectedEntryPoint() {
+        BearerTokenAuthenticationEntryPoint delegate = new BearerTokenAuthenticationEntryPoint();
+        return (request, response, exception) -> {
+            if (request.getHeader("Authorization") != null) {
+                authAuditLog.record(AuthAuditLog.EventType.TOKEN_REJECTED, null, exception::getMessage);
+            }
+            delegate.commence(request, response, exception);
+        };
+    }
+
     @Bean
     public OAuth2UserService<OidcUserRequest, OidcUser> oidcUserService() {
         final OidcUserService delegate = new OidcUserService();
 
         return userRequest -> {
-            try {
-                OidcUser oidcUser = delegate.loadUser(userRequest);
-                
-                Set<GrantedAuthority> authorities = new HashSet<>();
-                extractRolesFromClaims(oidcUser.getClaims(), authorities);
-                
-                if (authorities.isEmpty()) {
-                    authorities.add(new SimpleGrantedAuthority("ROLE_USER"));
-                }
-                
-                System.out.println("DEBUG: User " + oidcUser.getPreferredUsername() + " authenticated with authorities: " + authorities);
-                
-                return new DefaultOidcUser(authorities, oidcUser.getIdToken(), oidcUser.getUserInfo());
-            } catch (Exception e) {
-                System.err.println("ERROR: Failed to load user - " + e.getMessage());
-                e.printStackTrace();
-                throw e;
+            if (slimPrincipal) {
+                OidcUser slimUser = slimUser(userRequest);
+                log.debug("User {} has authorities {}", slimUser.getPreferredUsername(), slimUser.getAuthorities());
+                return slimUser;
             }
+
+            OidcUser oidcUser = delegate.loadUser(userRequest);
+            Collection<GrantedAuthority> authorities = roleAuthorityMapper.map(oidcUser.getClaims());
+            log.debug("User {} has authorities {}", oidcUser.getPreferredUsername(), authorities);
+            return new DefaultOidcUser(authorities, oidcUser.getIdToken(), oidcUser.getUserInfo());
         };
     }
 
-    private void extractRolesFromClaims(Map<String, Object> claims, Set<GrantedAuthority> authorities) {
-        try {
-            System.out.println("DEBUG: Available claims: " + claims.keySet());
-            
-            // Extract from realm_access
-            Object realmAccessObj = claims.get("realm_access");
-            if (realmAccessObj instanceof Map) {
-                @SuppressWarnings("unchecked")
-                Map<String, Object> realmAccess = (Map<String, Object>) realmAccessObj;
-                Object rolesObj = realmAccess.get("roles");
-                
-                if (rolesObj instanceof List) {
-                    @SuppressWarnings("unchecked")
-                    List<String> roles = (List<String>) rolesObj;
-                    System.out.println("DEBUG: Found realm_access roles: " + roles);
-                    
-                    roles.stream()
-                        .filter(role -> !role.startsWith("default-") && 
-                                      !role.startsWith("offline_") && 
-                                      !role.startsWith("uma_"))
-                        .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
-                        .forEach(authorities::add);
-                }
+    /**
+     * Builds the session principal from the ID token alone, without the userinfo
+     * round trip. Keycloak only adds role claims to the access token by default;
+     * that token was just received from the token endpoint, so it is read here
+     * without verifying its signature again.
+     */
+    private OidcUser slimUser(OidcUserRequest userRequest) {
+        Map<String, Object> claims = userRequest.getIdToken().getClaims();
+        Map<String, Object> roleClaims = claims;
+        if (!claims.containsKey("realm_access")) {
+            try {
+                roleClaims = JWTParser.parse(userRequest.getAccessToken().getTokenValue()).getJWTClaimsSet().getClaims();
+            } catch (ParseException e) {
+                log.debug("Access token is not a JWT, mapping roles from ID token claims only");
             }
-            
-            System.out.println("DEBUG: Final extracted authorities: " + authorities);
-        } catch (Exception e) {
-            System.err.println("ERROR: Failed to extract roles - " + e.getMessage());
-            e.printStackTrace();
         }
+        return CompactOidcUser.from(userRequest.getIdToken(), roleAuthorityMapper.map(roleClaims));
     }
 
+    /**
+     * Keeps each login's access and refresh tokens in its HTTP session, so they
+     * move to Redis with the session and go away when it ends. Boot's default
+     * holds them in an in-memory map per principal that logout never clears.
+     */
     @Bean
-    public JwtDecoder jwtDecoder() {
-        return NimbusJwtDecoder.withJwkSetUri(jwkSetUri).build();
+    public OAuth2AuthorizedClientRepository authorizedClientRepository() {
+        return new HttpSessionOAuth2AuthorizedClientRepository();
+    }
+
+    @Bean
+    public JwtDecoder jwtDecoder(JwksKeySource jwksKeySource) {
+        return jwtValidationCache.decoder(verifyingDecoder(jwksKeySource));
+    }
+
+    /**
+     * The uncached RS256 decoder; {@link WarmupRunner} drives the same code
+     * with a local key.
+     */
+    static JwtDecoder verifyingDecoder(JWKSource<SecurityContext> keySource) {
+        DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+        jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, keySource));
+        // Claims and token type are checked by the Spring validators on NimbusJwtDecoder
+        jwtProcessor.setJWSTypeVerifier((type, context) -> { });
+        jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> { });
+        return new NimbusJwtDecoder(jwtProcessor);
     }
 
     private JwtAuthenticationConverter jwtAuthenticationConverter() {
         JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
-        
-        converter.setJwtGrantedAuthoritiesConverter(jwt -> {
-            Set<GrantedAuthority> authorities = new HashSet<>();
-            
-            try {
-                Map<String, Object> realmAccess = jwt.getClaim("realm_access");
-                if (realmAccess != null && realmAccess.get("roles") != null) {
-                    @SuppressWarnings("unchecked")
-                    List<String> roles = (List<String>) realmAccess.get("roles");
-                    
-                    roles.stream()
-                        .filter(role -> !role.startsWith("default-") && 
-                                      !role.startsWith("offline_") && 
-                                      !role.startsWith("uma_"))
-                        .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
-                        .forEach(authorities::add);
-                }
-                
-                if (authorities.isEmpty()) {
-                    authorities.add(new SimpleGrantedAuthority("ROLE_USER"));
-                }
-            } catch (Exception e) {
-                System.err.println("ERROR: Failed to convert JWT authorities - " + e.getMessage());
-                authorities.add(new SimpleGrantedAuthority("ROLE_USER"));
-            }
-            
-            return new ArrayList<>(authorities);
-        });
-        
+        converter.setJwtGrantedAuthoritiesConverter(
+            jwtValidationCache.authorities(jwt -> roleAuthorityMapper.map(jwt.getClaims())));
         return converter;
     }
 
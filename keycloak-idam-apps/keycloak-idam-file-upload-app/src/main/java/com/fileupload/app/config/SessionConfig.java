@@ -0,0 +1,55 @@
+package com.fileupload.app.config;
+
+import org.springframework.beans.factory.BeanClassLoaderAware;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.session.FlushMode;
+import org.springframework.session.SaveMode;
+import org.springframework.session.data.redis.config.annotation.web.http.EnableRedisHttpSession;
+import org.springframework.session.web.http.CookieSerializer;
+import org.springframework.session.web.http.DefaultCookieSerializer;
+
+/**
+ * Moves HTTP sessions, and with them the OAuth2 login state and security
+ * context, into Redis so any replica can serve any request.
+ *
+ * Sessions are read only when a request touches them, and only attributes that
+ * changed are written back once the request completes.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.session.store", havingValue = "redis")
+@EnableRedisHttpSession(
+    redisNamespace = "${app.session.namespace:keycloak-idam:files}",
+    flushMode = FlushMode.ON_SAVE,
+    saveMode = SaveMode.ON_SET_ATTRIBUTE)
+public class SessionConfig implements BeanClassLoaderAware {
+
+    @Value("${app.session.cookie-name:SESSION}")
+    private String cookieName;
+
+    @Value("${app.session.compression-threshold-bytes:512}")
+    private int compressionThreshold;
+
+    private ClassLoader classLoader;
+
+    @Override
+    public void setBeanClassLoader(ClassLoader classLoader) {
+        this.classLoader = classLoader;
+    }
+
+    @Bean
+    public RedisSerializer<Object> springSessionDefaultRedisSerializer() {
+        return new CompactSessionSerializer(classLoader, compressionThreshold);
+    }
+
+    @Bean
+    public CookieSerializer cookieSerializer() {
+        DefaultCookieSerializer serializer = new DefaultCookieSerializer();
+        serializer.setCookieName(cookieName);
+        serializer.setSameSite("Lax");
+        return serializer;
+    }
+}
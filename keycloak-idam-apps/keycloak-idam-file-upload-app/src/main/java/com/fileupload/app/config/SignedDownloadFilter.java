@@ -0,0 +1,107 @@
+package com.fileupload.app.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.fileupload.app.dto.FileDownload;
+import com.fileupload.app.dto.FileInfo;
+import com.fileupload.app.exception.FileStorageException;
+import com.fileupload.app.exception.RangeNotSatisfiableException;
+import com.fileupload.app.exception.RateLimitExceededException;
+import com.fileupload.app.service.ContentTypes;
+import com.fileupload.app.service.FileStorageService;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Serves {@code /api/signed/files/{fileId}} links issued by
+ * {@link SignedLinkSigner}. Runs ahead of Spring Security and answers the
+ * request itself, so a download never loads a session, decodes a token or
+ * evaluates method security.
+ */
+public class SignedDownloadFilter extends OncePerRequestFilter {
+
+    public static final String PATH_PREFIX = "/api/signed/files/";
+
+    private final SignedLinkSigner signedLinkSigner;
+    private final FileStorageService fileStorageService;
+
+    public SignedDownloadFilter(SignedLinkSigner signedLinkSigner, FileStorageService fileStorageService) {
+        this.signedLinkSigner = signedLinkSigner;
+        this.fileStorageService = fileStorageService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!"GET".equals(request.getMethod())) {
+            response.sendError(HttpStatus.METHOD_NOT_ALLOWED.value());
+            return;
+        }
+
+        String fileId = request.getRequestURI().substring(request.getContextPath().length() + PATH_PREFIX.length());
+        String owner = request.getParameter("u");
+        String signature = request.getParameter("sig");
+        long expiresAt;
+        try {
+            expiresAt = Long.parseLong(request.getParameter("exp"));
+        } catch (NumberFormatException ex) {
+            response.sendError(HttpStatus.FORBIDDEN.value());
+            return;
+        }
+        if (fileId.isEmpty() || owner == null || signature == null
+                || !signedLinkSigner.verify(PATH_PREFIX, fileId, owner, expiresAt, signature)) {
+            response.sendError(HttpStatus.FORBIDDEN.value());
+            return;
+        }
+
+        FileDownload download;
+        try {
+            download = fileStorageService.openDownload(fileId, owner, List.of(),
+                ContentTypes.acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING)),
+                request.getHeader(HttpHeaders.RANGE));
+        } catch (RangeNotSatisfiableException ex) {
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + ex.getContentLength());
+            response.sendError(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+            return;
+        } catch (RateLimitExceededException ex) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()));
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value());
+            return;
+        } catch (FileStorageException ex) {
+            response.sendError(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+
+        FileInfo fileInfo = download.getFileInfo();
+        if (download.getContentRange() != null) {
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, download.getContentRange());
+        }
+        long maxAge = Math.max(0, expiresAt - Instant.now().getEpochSecond());
+        response.setContentType(fileInfo.getContentType());
+        response.setContentLengthLong(download.getContentLength());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+            "attachment; filename=\"" + fileInfo.getOriginalFileName() + "\"");
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "public, max-age=" + maxAge + ", immutable");
+        if (fileInfo.isCompressed()) {
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        if (download.getContentEncoding() != null) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, download.getContentEncoding());
+        }
+        try (InputStream in = download.getResource().getInputStream()) {
+            in.transferTo(response.getOutputStream());
+        }
+    }
+}
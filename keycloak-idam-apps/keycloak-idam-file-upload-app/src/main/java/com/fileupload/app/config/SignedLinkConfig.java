@@ -0,0 +1,27 @@
+package com.fileupload.app.config;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.fileupload.app.service.FileStorageService;
+
+@Configuration
+public class SignedLinkConfig {
+
+    /**
+     * Spring Security's filter chain is registered at order -100; signed
+     * downloads are answered just before it.
+     */
+    private static final int SIGNED_DOWNLOAD_FILTER_ORDER = -101;
+
+    @Bean
+    public FilterRegistrationBean<SignedDownloadFilter> signedDownloadFilter(
+            SignedLinkSigner signedLinkSigner, FileStorageService fileStorageService) {
+        FilterRegistrationBean<SignedDownloadFilter> registration =
+            new FilterRegistrationBean<>(new SignedDownloadFilter(signedLinkSigner, fileStorageService));
+        registration.addUrlPatterns(SignedDownloadFilter.PATH_PREFIX + "*");
+        registration.setOrder(SIGNED_DOWNLOAD_FILTER_ORDER);
+        return registration;
+    }
+}
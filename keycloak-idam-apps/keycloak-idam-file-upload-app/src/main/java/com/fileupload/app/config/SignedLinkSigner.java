@@ -0,0 +1,122 @@
+package com.fileupload.app.config;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import com.fileupload.app.dto.SignedLinkResponse;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Issues and verifies short-lived download links signed with HMAC-SHA256 over
+ * the link's path prefix, the resource id, its owner and the expiry time. The
+ * prefix binds a link to one kind of resource, so with a secret shared between
+ * apps a file link cannot be replayed as a report link or the other way round.
+ */
+@Slf4j
+@Component
+public class SignedLinkSigner {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    @Value("${app.signed-links.secret:}")
+    private String secret;
+
+    @Value("${app.signed-links.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    // Cloned per use: cheaper than getInstance and init, and unlike a ThreadLocal
+    // it is reused on virtual threads too
+    private SecretKeySpec key;
+    private Mac prototype;
+
+    @PostConstruct
+    public void init() {
+        byte[] keyBytes;
+        if (StringUtils.hasText(secret)) {
+            keyBytes = Base64.getDecoder().decode(secret);
+        } else {
+            keyBytes = new byte[32];
+            new SecureRandom().nextBytes(keyBytes);
+            log.warn("app.signed-links.secret is not set; signed links will not survive a restart or work across replicas");
+        }
+        key = new SecretKeySpec(keyBytes, ALGORITHM);
+        prototype = newMac(key);
+    }
+
+    public SignedLinkResponse issue(String pathPrefix, String id, String owner) {
+        long expiresAt = Instant.now().getEpochSecond() + ttlSeconds;
+        String url = pathPrefix + id
+            + "?u=" + URLEncoder.encode(owner, StandardCharsets.UTF_8)
+            + "&exp=" + expiresAt
+            + "&sig=" + sign(pathPrefix, id, owner, expiresAt);
+        return SignedLinkResponse.builder()
+            .url(url)
+            .expiresAt(expiresAt)
+            .build();
+    }
+
+    public String sign(String pathPrefix, String id, String owner, long expiresAt) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(mac(pathPrefix, id, owner, expiresAt));
+    }
+
+    /**
+     * Checks expiry first, then compares signatures in constant time.
+     */
+    public boolean verify(String pathPrefix, String id, String owner, long expiresAt, String signature) {
+        if (expiresAt < Instant.now().getEpochSecond()) {
+            return false;
+        }
+        byte[] provided;
+        try {
+            provided = Base64.getUrlDecoder().decode(signature);
+        } catch (IllegalArgumentException ex) {
+            return false;
+        }
+        return MessageDigest.isEqual(mac(pathPrefix, id, owner, expiresAt), provided);
+    }
+
+    private byte[] mac(String pathPrefix, String id, String owner, long expiresAt) {
+        Mac mac = copy();
+        mac.update(pathPrefix.getBytes(StandardCharsets.UTF_8));
+        mac.update((byte) 0);
+        mac.update(id.getBytes(StandardCharsets.UTF_8));
+        mac.update((byte) 0);
+        mac.update(owner.getBytes(StandardCharsets.UTF_8));
+        mac.update((byte) 0);
+        mac.update(Long.toString(expiresAt).getBytes(StandardCharsets.US_ASCII));
+        return mac.doFinal();
+    }
+
+    private Mac copy() {
+        try {
+            return (Mac) prototype.clone();
+        } catch (CloneNotSupportedException ex) {
+            // Not expected from the JDK provider; initialize a fresh instance instead
+            return newMac(key);
+        }
+    }
+
+    private static Mac newMac(SecretKeySpec key) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException(ALGORITHM + " not available", ex);
+        }
+    }
+}
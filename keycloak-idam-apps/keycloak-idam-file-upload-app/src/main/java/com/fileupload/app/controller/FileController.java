@@ -2,7 +2,18 @@ package com.fileupload.app.controller;
 
 
 
+import com.fileupload.app.config.CurrentUser;
+import com.fileupload.app.config.SignedDownloadFilter;
+import com.fileupload.app.config.SignedLinkSigner;
+import com.fileupload.app.dto.BatchDeleteResponse;
+import com.fileupload.app.dto.BatchUploadResponse;
+import com.fileupload.app.dto.FileDownload;
 import com.fileupload.app.dto.FileInfo;
+import com.fileupload.app.dto.SignedLinkResponse;
+import com.fileupload.app.exception.QuotaExceededException;
+import com.fileupload.app.exception.RangeNotSatisfiableException;
+import com.fileupload.app.exception.RateLimitExceededException;
+import com.fileupload.app.service.ContentTypes;
 import com.fileupload.app.service.FileStorageService;
 import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
@@ -10,10 +21,10 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.oauth2.core.oidc.user.OidcUser;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.HashMap;
 import java.util.List;
@@ -25,28 +36,54 @@ import java.util.Map;
 public class FileController {
 
     private final FileStorageService fileStorageService;
+    private final SignedLinkSigner signedLinkSigner;
 
-    public FileController(FileStorageService fileStorageService) {
+    public FileController(FileStorageService fileStorageService, SignedLinkSigner signedLinkSigner) {
         this.fileStorageService = fileStorageService;
+        this.signedLinkSigner = signedLinkSigner;
     }
 
     @PostMapping("/upload")
     public ResponseEntity<FileInfo> uploadFile(
             @RequestParam("file") MultipartFile file,
-            @AuthenticationPrincipal OidcUser principal) {
+            Authentication authentication) {
         try {
-            String username = principal.getPreferredUsername();
-            FileInfo fileInfo = fileStorageService.storeFile(file, username);
+            String username = CurrentUser.username(authentication);
+            FileInfo fileInfo = fileStorageService.storeFile(file, username, authentication.getAuthorities());
             return ResponseEntity.status(HttpStatus.CREATED).body(fileInfo);
+        } catch (QuotaExceededException e) {
+            return ResponseEntity.status(HttpStatus.CONTENT_TOO_LARGE).build();
+        } catch (RateLimitExceededException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
+    @PostMapping("/upload/batch")
+    public ResponseEntity<BatchUploadResponse> uploadFiles(
+            @RequestParam("files") List<MultipartFile> files,
+            Authentication authentication) {
+        try {
+            String username = CurrentUser.username(authentication);
+            BatchUploadResponse response = fileStorageService.storeFiles(files, username, authentication.getAuthorities());
+            HttpStatus status = response.getFailed().isEmpty() ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+            return ResponseEntity.status(status).body(response);
+        } catch (QuotaExceededException e) {
+            return ResponseEntity.status(HttpStatus.CONTENT_TOO_LARGE).build();
+        } catch (RateLimitExceededException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .build();
+        }
+    }
+
     @GetMapping
     public ResponseEntity<List<FileInfo>> getAllFiles(
-            @AuthenticationPrincipal OidcUser principal) {
-        String username = principal.getPreferredUsername();
+            Authentication authentication) {
+        String username = CurrentUser.username(authentication);
         List<FileInfo> files = fileStorageService.getAllFiles(username);
         return ResponseEntity.ok(files);
     }
@@ -54,9 +91,9 @@ public class FileController {
     @GetMapping("/{fileId}")
     public ResponseEntity<FileInfo> getFileInfo(
             @PathVariable String fileId,
-            @AuthenticationPrincipal OidcUser principal) {
+            Authentication authentication) {
         try {
-            String username = principal.getPreferredUsername();
+            String username = CurrentUser.username(authentication);
             FileInfo fileInfo = fileStorageService.getFileInfo(fileId, username);
             return ResponseEntity.ok(fileInfo);
         } catch (Exception e) {
@@ -67,17 +104,54 @@ public class FileController {
     @GetMapping("/{fileId}/download")
     public ResponseEntity<Resource> downloadFile(
             @PathVariable String fileId,
-            @AuthenticationPrincipal OidcUser principal) {
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+            Authentication authentication) {
         try {
-            String username = principal.getPreferredUsername();
-            Resource resource = fileStorageService.loadFileAsResource(fileId, username);
-            FileInfo fileInfo = fileStorageService.getFileInfo(fileId, username);
+            String username = CurrentUser.username(authentication);
+            FileDownload download = fileStorageService.openDownload(
+                fileId, username, authentication.getAuthorities(), ContentTypes.acceptsGzip(acceptEncoding), range);
+            FileInfo fileInfo = download.getFileInfo();
 
-            return ResponseEntity.ok()
+            // Ranges are resolved by the service; a 206 also keeps Spring from slicing the stream again
+            ResponseEntity.BodyBuilder response = ResponseEntity
+                .status(download.getContentRange() != null ? HttpStatus.PARTIAL_CONTENT : HttpStatus.OK)
                 .contentType(MediaType.parseMediaType(fileInfo.getContentType()))
+                .contentLength(download.getContentLength())
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
                 .header(HttpHeaders.CONTENT_DISPOSITION, 
-                    "attachment; filename=\"" + fileInfo.getOriginalFileName() + "\"")
-                .body(resource);
+                    "attachment; filename=\"" + fileInfo.getOriginalFileName() + "\"");
+            if (fileInfo.isCompressed()) {
+                response.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            }
+            if (download.getContentEncoding() != null) {
+                response.header(HttpHeaders.CONTENT_ENCODING, download.getContentEncoding());
+            }
+            if (download.getContentRange() != null) {
+                response.header(HttpHeaders.CONTENT_RANGE, download.getContentRange());
+            }
+            return response.body(download.getResource());
+        } catch (RangeNotSatisfiableException e) {
+            return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                .header(HttpHeaders.CONTENT_RANGE, "bytes */" + e.getContentLength())
+                .build();
+        } catch (RateLimitExceededException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .build();
+        } catch (Exception e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @PostMapping("/{fileId}/link")
+    public ResponseEntity<SignedLinkResponse> createDownloadLink(
+            @PathVariable String fileId,
+            Authentication authentication) {
+        try {
+            String username = CurrentUser.username(authentication);
+            fileStorageService.getFileInfo(fileId, username);
+            return ResponseEntity.ok(signedLinkSigner.issue(SignedDownloadFilter.PATH_PREFIX, fileId, username));
         } catch (Exception e) {
             return ResponseEntity.notFound().build();
         }
@@ -86,9 +160,9 @@ public class FileController {
     @DeleteMapping("/{fileId}")
     public ResponseEntity<Map<String, String>> deleteFile(
             @PathVariable String fileId,
-            @AuthenticationPrincipal OidcUser principal) {
+            Authentication authentication) {
         try {
-            String username = principal.getPreferredUsername();
+            String username = CurrentUser.username(authentication);
             fileStorageService.deleteFile(fileId, username);
             Map<String, String> response = new HashMap<>();
             response.put("message", "File deleted successfully");
@@ -97,4 +171,33 @@ public class FileController {
             return ResponseEntity.notFound().build();
         }
     }
+
+    @DeleteMapping
+    public ResponseEntity<BatchDeleteResponse> deleteFiles(
+            @RequestBody List<String> fileIds,
+            Authentication authentication) {
+        String username = CurrentUser.username(authentication);
+        BatchDeleteResponse response = fileStorageService.deleteFiles(fileIds, username);
+        HttpStatus status = response.getFailed().isEmpty() ? HttpStatus.OK : HttpStatus.MULTI_STATUS;
+        return ResponseEntity.status(status).body(response);
+    }
+
+    @GetMapping("/archive")
+    public ResponseEntity<StreamingResponseBody> downloadArchive(
+            @RequestParam("ids") List<String> fileIds,
+            Authentication authentication) {
+        try {
+            String username = CurrentUser.username(authentication);
+            List<FileInfo> selected = fileStorageService.resolveArchiveEntries(fileIds, username);
+            StreamingResponseBody body = out ->
+                fileStorageService.writeArchive(selected, username, authentication.getAuthorities(), out);
+
+            return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"files.zip\"")
+                .body(body);
+        } catch (Exception e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.fileupload.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchDeleteResponse {
+
+    private List<String> deleted;
+    private Map<String, String> failed;
+}
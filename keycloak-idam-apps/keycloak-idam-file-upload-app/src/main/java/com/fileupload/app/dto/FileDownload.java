@@ -0,0 +1,22 @@
+package com.fileupload.app.dto;
+
+import org.springframework.core.io.Resource;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FileDownload {
+
+    private FileInfo fileInfo;
+    private Resource resource;
+    private String contentEncoding;
+    private long contentLength;
+    /** {@code Content-Range} of a partial download, {@code null} for the whole file. */
+    private String contentRange;
+}
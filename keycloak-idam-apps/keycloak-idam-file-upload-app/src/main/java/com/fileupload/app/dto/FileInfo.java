@@ -1,5 +1,7 @@
 package com.fileupload.app.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -21,4 +23,7 @@ public class FileInfo {
     private String uploadedBy;
     private LocalDateTime uploadedAt;
     private String downloadUrl;
+    /** How the file is stored on disk; clients see it only as Content-Encoding. */
+    @JsonIgnore
+    private boolean compressed;
 }
@@ -0,0 +1,16 @@
+package com.fileupload.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SignedLinkResponse {
+
+    private String url;
+    private long expiresAt;
+}
@@ -0,0 +1,7 @@
+package com.fileupload.app.exception;
+
+public class QuotaExceededException extends FileStorageException {
+    public QuotaExceededException(String message) {
+        super(message);
+    }
+}
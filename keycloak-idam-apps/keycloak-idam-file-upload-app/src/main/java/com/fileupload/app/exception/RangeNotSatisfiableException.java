@@ -0,0 +1,15 @@
+package com.fileupload.app.exception;
+
+public class RangeNotSatisfiableException extends FileStorageException {
+
+    private final long contentLength;
+
+    public RangeNotSatisfiableException(String message, long contentLength) {
+        super(message);
+        this.contentLength = contentLength;
+    }
+
+    public long getContentLength() {
+        return contentLength;
+    }
+}
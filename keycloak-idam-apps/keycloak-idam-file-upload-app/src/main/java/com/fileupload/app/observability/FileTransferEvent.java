@@ -0,0 +1,48 @@
+package com.fileupload.app.observability;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Frequency;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.fileupload.app.FileTransfer")
+@Label("File Transfer")
+@Category({"Keycloak IDAM", "Files"})
+@StackTrace(false)
+public class FileTransferEvent extends Event {
+
+    @Label("Direction")
+    public String direction;
+
+    @Label("Size")
+    @DataAmount
+    public long bytes;
+
+    @Label("Throughput")
+    @DataAmount
+    @Frequency
+    public long bytesPerSecond;
+
+    @Label("Encoding")
+    public String encoding;
+
+    @Label("Outcome")
+    public String outcome;
+
+    /**
+     * Ends the event and, if it is recorded, fills in size and throughput.
+     */
+    public void finish(long startNanos, long transferred, String outcome) {
+        end();
+        if (shouldCommit()) {
+            long elapsed = Math.max(1L, System.nanoTime() - startNanos);
+            this.bytes = transferred;
+            this.bytesPerSecond = (long) (transferred * 1e9 / elapsed);
+            this.outcome = outcome;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.fileupload.app.observability;
+
+/**
+ * Per-request latency breakdown, confined to the request thread.
+ *
+ * Instrumented code calls {@link #start(Span)} and {@link #stop(Span, long)}
+ * around the work it owns. When timing is off, or the current thread is not
+ * serving a timed request, {@code start} returns {@code 0} without touching a
+ * thread local and {@code stop} returns immediately. A span already open on
+ * the request is not restarted by nested calls, so re-entrant code is counted
+ * once.
+ */
+public final class RequestTimings {
+
+    public enum Span {
+        AUTH("auth"),
+        KEYCLOAK("keycloak"),
+        RENDER("render"),
+        STORAGE("storage"),
+        SERIALIZE("serialize");
+
+        private final String metricName;
+
+        Span(String metricName) {
+            this.metricName = metricName;
+        }
+
+        public String metricName() {
+            return metricName;
+        }
+    }
+
+    private static final Span[] SPANS = Span.values();
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+    private static volatile boolean enabled;
+
+    private final long startNanos;
+    private final long[] spanNanos = new long[SPANS.length];
+    private final boolean[] open = new boolean[SPANS.length];
+    private long serializeStartNanos;
+    private String principal;
+
+    private RequestTimings(long startNanos) {
+        this.startNanos = startNanos;
+    }
+
+    static void setEnabled(boolean enabled) {
+        RequestTimings.enabled = enabled;
+    }
+
+    static RequestTimings begin() {
+        RequestTimings timings = new RequestTimings(System.nanoTime());
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    void end() {
+        CURRENT.remove();
+    }
+
+    static RequestTimings current() {
+        return enabled ? CURRENT.get() : null;
+    }
+
+    /**
+     * @return the start timestamp to hand to {@link #stop}, or {@code 0} when
+     * nothing is being recorded
+     */
+    public static long start(Span span) {
+        if (!enabled) {
+            return 0L;
+        }
+        RequestTimings timings = CURRENT.get();
+        if (timings == null || timings.open[span.ordinal()]) {
+            return 0L;
+        }
+        timings.open[span.ordinal()] = true;
+        return System.nanoTime();
+    }
+
+    public static void stop(Span span, long startNanos) {
+        if (startNanos == 0L) {
+            return;
+        }
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.spanNanos[span.ordinal()] += System.nanoTime() - startNanos;
+            timings.open[span.ordinal()] = false;
+        }
+    }
+
+    /**
+     * Closes the auth span at the point the security chain hands the request on.
+     */
+    void authenticated(String principal) {
+        spanNanos[Span.AUTH.ordinal()] = System.nanoTime() - startNanos;
+        this.principal = principal;
+    }
+
+    void serializing() {
+        if (serializeStartNanos == 0L) {
+            serializeStartNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * Closes the serialize span once the response body has been written and
+     * flushed, which is when the response commits.
+     */
+    void committed() {
+        if (serializeStartNanos != 0L && spanNanos[Span.SERIALIZE.ordinal()] == 0L) {
+            spanNanos[Span.SERIALIZE.ordinal()] = System.nanoTime() - serializeStartNanos;
+        }
+    }
+
+    long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    long spanNanos(Span span) {
+        return spanNanos[span.ordinal()];
+    }
+
+    String principal() {
+        return principal;
+    }
+
+    /**
+     * {@code Server-Timing} header value: the recorded spans plus the total so far.
+     */
+    String toHeader() {
+        StringBuilder header = new StringBuilder(96);
+        for (Span span : SPANS) {
+            long nanos = spanNanos[span.ordinal()];
+            if (nanos > 0L) {
+                appendMetric(header, span.metricName(), nanos).append(", ");
+            }
+        }
+        return appendMetric(header, "total", elapsedNanos()).toString();
+    }
+
+    private static StringBuilder appendMetric(StringBuilder header, String name, long nanos) {
+        long micros = nanos / 1_000L;
+        header.append(name).append(";dur=").append(micros / 1_000L).append('.');
+        long fraction = micros % 1_000L;
+        if (fraction < 100L) {
+            header.append('0');
+        }
+        if (fraction < 10L) {
+            header.append('0');
+        }
+        return header.append(fraction);
+    }
+}
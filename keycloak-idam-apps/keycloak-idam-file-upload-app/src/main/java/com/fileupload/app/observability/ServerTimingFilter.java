@@ -0,0 +1,116 @@
+package com.fileupload.app.observability;
+
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.fileupload.app.observability.RequestTimings.Span;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Opens a {@link RequestTimings} collector for each request, adds the
+ * {@code Server-Timing} header just before the response commits and writes one
+ * {@code http.access} line per request with the same breakdown.
+ */
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    static final String HEADER = "Server-Timing";
+
+    private static final Logger ACCESS = LoggerFactory.getLogger("http.access");
+
+    private final boolean header;
+    private final boolean accessLog;
+
+    public ServerTimingFilter(boolean header, boolean accessLog) {
+        this.header = header;
+        this.accessLog = accessLog;
+        RequestTimings.setEnabled(header || accessLog);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!header && !(accessLog && ACCESS.isInfoEnabled())) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        RequestTimings timings = RequestTimings.begin();
+        TimingResponse timed = new TimingResponse(response, timings);
+        try {
+            chain.doFilter(request, timed);
+        } finally {
+            timed.commitTimings();
+            timings.end();
+            if (accessLog) {
+                log(request, response, timings);
+            }
+        }
+    }
+
+    private static void log(HttpServletRequest request, HttpServletResponse response, RequestTimings timings) {
+        ACCESS.info("method={} path={} status={} principal={} total_ms={} auth_ms={} keycloak_ms={} render_ms={} storage_ms={} serialize_ms={}",
+            request.getMethod(), request.getRequestURI(), response.getStatus(), timings.principal(),
+            millis(timings.elapsedNanos()), millis(timings.spanNanos(Span.AUTH)),
+            millis(timings.spanNanos(Span.KEYCLOAK)), millis(timings.spanNanos(Span.RENDER)),
+            millis(timings.spanNanos(Span.STORAGE)), millis(timings.spanNanos(Span.SERIALIZE)));
+    }
+
+    private static long millis(long nanos) {
+        return nanos / 1_000_000L;
+    }
+
+    private final class TimingResponse extends OnCommittedResponseWrapper {
+
+        private final RequestTimings timings;
+        private boolean written;
+
+        TimingResponse(HttpServletResponse response, RequestTimings timings) {
+            super(response);
+            this.timings = timings;
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            commitTimings();
+        }
+
+        void commitTimings() {
+            if (written) {
+                return;
+            }
+            written = true;
+            timings.committed();
+            if (header && !isCommitted()) {
+                setHeader(HEADER, timings.toHeader());
+            }
+        }
+    }
+
+    /**
+     * Registered right after Spring Security's filter chain: everything up to
+     * here, session lookup and token decoding included, counts as auth.
+     */
+    public static class AuthenticatedMarker extends OncePerRequestFilter {
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                throws ServletException, IOException {
+            RequestTimings timings = RequestTimings.current();
+            if (timings != null) {
+                Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+                timings.authenticated(authentication == null ? null : authentication.getName());
+            }
+            chain.doFilter(request, response);
+        }
+    }
+}
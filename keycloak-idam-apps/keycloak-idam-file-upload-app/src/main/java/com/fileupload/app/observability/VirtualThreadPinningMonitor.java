@@ -0,0 +1,94 @@
+package com.fileupload.app.observability;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Reports virtual threads that block while pinned to their carrier, which in
+ * Java 21 happens when they park inside a {@code synchronized} block or a
+ * native frame. Each pinning longer than the threshold is recorded in
+ * {@code jvm.threads.virtual.pinned}, tagged with the first frame outside the
+ * JDK, and the first one seen from each such frame is logged with its stack.
+ */
+@Slf4j
+@Component
+public class VirtualThreadPinningMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 12;
+
+    @Value("${app.virtual-threads.pinning-monitor:true}")
+    private boolean enabled;
+
+    @Value("${app.virtual-threads.pinned-threshold-millis:20}")
+    private long thresholdMillis;
+
+    private final Meter.MeterProvider<Timer> pinnedTimer;
+    private final Set<String> reportedFrames = ConcurrentHashMap.newKeySet();
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry) {
+        this.pinnedTimer = Timer.builder("jvm.threads.virtual.pinned")
+            .description("Time virtual threads spent blocked while pinned to a carrier thread")
+            .withRegistry(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(Duration.ofMillis(thresholdMillis)).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        List<RecordedFrame> frames = event.getStackTrace() == null ? List.of() : event.getStackTrace().getFrames();
+        String culprit = frames.stream()
+            .map(frame -> frame.getMethod().getType().getName())
+            .filter(type -> !type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun."))
+            .findFirst()
+            .orElse("jdk");
+        pinnedTimer.withTags("frame", culprit).record(event.getDuration());
+
+        if (reportedFrames.add(culprit)) {
+            log.warn("Virtual thread pinned for {} ms in {}; later pinnings from here are only counted:\n\t{}",
+                event.getDuration().toMillis(), culprit, describe(frames));
+        } else if (log.isDebugEnabled()) {
+            log.debug("Virtual thread pinned for {} ms in {}", event.getDuration().toMillis(), culprit);
+        }
+    }
+
+    private static String describe(List<RecordedFrame> frames) {
+        return frames.stream()
+            .limit(LOGGED_FRAMES)
+            .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + ":" + frame.getLineNumber())
+            .collect(Collectors.joining("\n\t"));
+    }
+}
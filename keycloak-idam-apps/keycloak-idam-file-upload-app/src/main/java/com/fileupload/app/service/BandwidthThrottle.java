@@ -0,0 +1,250 @@
+package com.fileupload.app.service;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Service;
+
+import com.fileupload.app.exception.RateLimitExceededException;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Per-user token-bucket shaping for download streams.
+ *
+ * Uploads reach the service only after the multipart body has been received
+ * and parsed, so there is nothing left to pace: they are charged to the bucket
+ * instead, and the debt they leave holds back the user's next transfers at
+ * {@link #checkAdmission}.
+ *
+ * Each bucket is a single "next free" timestamp advanced with compare-and-set
+ * (GCRA form of a token bucket), so acquiring tokens is lock-free and
+ * allocation-free. The rate is the highest one configured for any of the
+ * user's roles. Buckets with no open stream that have refilled completely
+ * carry no state and are swept from the map in the background.
+ */
+@Slf4j
+@Service
+public class BandwidthThrottle implements InitializingBean, DisposableBean {
+
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    @Value("${app.quota.bandwidth.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.quota.bandwidth.default-bytes-per-second:5242880}")
+    private long defaultBytesPerSecond;
+
+    @Value("#{${app.quota.bandwidth.role-bytes-per-second:{:}}}")
+    private Map<String, Long> roleBytesPerSecond;
+
+    @Value("${app.quota.bandwidth.burst-seconds:2}")
+    private long burstSeconds;
+
+    @Value("${app.quota.bandwidth.max-queue-seconds:30}")
+    private long maxQueueSeconds;
+
+    @Value("${app.quota.bandwidth.sweep-interval-seconds:60}")
+    private long sweepIntervalSeconds;
+
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private ScheduledExecutorService sweeper;
+
+    @Override
+    public void afterPropertiesSet() {
+        sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "bandwidth-sweep");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(this::evictIdle, sweepIntervalSeconds, sweepIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        sweeper.shutdownNow();
+    }
+
+    /**
+     * Rejects a transfer up front when the user's bucket is already so far in
+     * debt that the first bytes would wait longer than the allowed queue time.
+     */
+    public void checkAdmission(String username) {
+        if (!enabled) {
+            return;
+        }
+        Bucket bucket = buckets.get(username);
+        if (bucket == null) {
+            return;
+        }
+        long waitNanos = bucket.backlogNanos(System.nanoTime(), TimeUnit.SECONDS.toNanos(burstSeconds));
+        if (waitNanos > TimeUnit.SECONDS.toNanos(maxQueueSeconds)) {
+            throw new RateLimitExceededException("Bandwidth limit exceeded for user " + username,
+                TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1);
+        }
+    }
+
+    public InputStream throttle(InputStream in, String username,
+                                Collection<? extends GrantedAuthority> authorities) {
+        if (!enabled) {
+            return in;
+        }
+        long rate = resolveRate(authorities);
+        if (rate <= 0) {
+            return in;
+        }
+        // Opened under the map's lock, so the sweeper cannot drop a bucket a stream is about to use
+        Bucket bucket = buckets.compute(username, (key, existing) -> {
+            Bucket opened = existing != null ? existing : new Bucket();
+            opened.openStreams.incrementAndGet();
+            return opened;
+        });
+        return new ThrottledInputStream(in, bucket, rate, TimeUnit.SECONDS.toNanos(burstSeconds));
+    }
+
+    /**
+     * Charges {@code bytes} that have already been transferred to the user's
+     * bucket without waiting.
+     */
+    public void charge(String username, Collection<? extends GrantedAuthority> authorities, long bytes) {
+        if (!enabled || bytes <= 0) {
+            return;
+        }
+        long rate = resolveRate(authorities);
+        if (rate <= 0) {
+            return;
+        }
+        long costNanos = (long) (bytes * (1_000_000_000d / rate));
+        long burstNanos = TimeUnit.SECONDS.toNanos(burstSeconds);
+        // Charged under the map's lock, so the sweeper cannot drop the bucket in between
+        buckets.compute(username, (key, existing) -> {
+            Bucket bucket = existing != null ? existing : new Bucket();
+            bucket.acquire(costNanos, burstNanos);
+            return bucket;
+        });
+    }
+
+    private void evictIdle() {
+        long now = System.nanoTime();
+        long burstNanos = TimeUnit.SECONDS.toNanos(burstSeconds);
+        int before = buckets.size();
+        for (String username : buckets.keySet()) {
+            buckets.computeIfPresent(username, (key, bucket) -> bucket.isIdle(now, burstNanos) ? null : bucket);
+        }
+        log.debug("Evicted {} idle bandwidth buckets", before - buckets.size());
+    }
+
+    private long resolveRate(Collection<? extends GrantedAuthority> authorities) {
+        long rate = 0;
+        if (authorities != null) {
+            for (GrantedAuthority authority : authorities) {
+                String name = authority.getAuthority();
+                if (name != null && name.startsWith(ROLE_PREFIX)) {
+                    Long roleRate = roleBytesPerSecond.get(name.substring(ROLE_PREFIX.length()));
+                    if (roleRate != null && roleRate > rate) {
+                        rate = roleRate;
+                    }
+                }
+            }
+        }
+        return rate > 0 ? rate : defaultBytesPerSecond;
+    }
+
+    private static final class Bucket {
+
+        private final AtomicLong nextFree = new AtomicLong(System.nanoTime());
+        private final AtomicInteger openStreams = new AtomicInteger();
+
+        /** Full again and unused, so a fresh bucket would behave the same. */
+        boolean isIdle(long now, long burstNanos) {
+            return openStreams.get() == 0 && nextFree.get() - (now - burstNanos) <= 0;
+        }
+
+        long backlogNanos(long now, long burstNanos) {
+            return Math.max(0, nextFree.get() - now - burstNanos);
+        }
+
+        /**
+         * Charges {@code costNanos} against the bucket and returns how long the
+         * caller has to wait for the charge to fall within the burst allowance.
+         */
+        long acquire(long costNanos, long burstNanos) {
+            while (true) {
+                long now = System.nanoTime();
+                long current = nextFree.get();
+                long start = Math.max(current, now - burstNanos);
+                long updated = start + costNanos;
+                if (nextFree.compareAndSet(current, updated)) {
+                    return Math.max(0, updated - now - burstNanos);
+                }
+            }
+        }
+    }
+
+    private static final class ThrottledInputStream extends FilterInputStream {
+
+        private final Bucket bucket;
+        private final double nanosPerByte;
+        private final long burstNanos;
+        private boolean closed;
+
+        ThrottledInputStream(InputStream in, Bucket bucket, long bytesPerSecond, long burstNanos) {
+            super(in);
+            this.bucket = bucket;
+            this.nanosPerByte = 1_000_000_000d / bytesPerSecond;
+            this.burstNanos = burstNanos;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                charge(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                charge(n);
+            }
+            return n;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!closed) {
+                closed = true;
+                bucket.openStreams.decrementAndGet();
+            }
+            super.close();
+        }
+
+        private void charge(int bytes) throws IOException {
+            long waitNanos = bucket.acquire((long) (bytes * nanosPerByte), burstNanos);
+            if (waitNanos > 0) {
+                LockSupport.parkNanos(waitNanos);
+                if (Thread.interrupted()) {
+                    throw new InterruptedIOException("Throttled transfer interrupted");
+                }
+            }
+        }
+    }
+}
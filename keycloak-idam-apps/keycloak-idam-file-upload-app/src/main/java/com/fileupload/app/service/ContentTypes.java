@@ -0,0 +1,111 @@
+package com.fileupload.app.service;
+
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Classifies uploads by how well they compress, so already-compressed media
+ * is never run through a compressor a second time and text-like formats are.
+ */
+public final class ContentTypes {
+
+    private static final Set<String> COMPRESSED = Set.of(
+        "application/zip",
+        "application/gzip",
+        "application/x-gzip",
+        "application/x-7z-compressed",
+        "application/x-rar-compressed",
+        "application/x-bzip2",
+        "application/x-xz",
+        "application/zstd",
+        "application/pdf",
+        "application/vnd.openxmlformats-officedocument.wordprocessingml.document",
+        "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet",
+        "application/vnd.openxmlformats-officedocument.presentationml.presentation"
+    );
+
+    private static final Set<String> COMPRESSIBLE = Set.of(
+        "application/json",
+        "application/xml",
+        "application/csv",
+        "application/x-ndjson",
+        "application/javascript",
+        "application/x-yaml",
+        "application/yaml",
+        "application/sql",
+        "image/svg+xml"
+    );
+
+    private ContentTypes() {
+    }
+
+    static boolean isCompressed(String contentType) {
+        String type = normalize(contentType);
+        if (type == null) {
+            return false;
+        }
+        return type.startsWith("image/") && !type.equals("image/svg+xml")
+            || type.startsWith("audio/")
+            || type.startsWith("video/")
+            || COMPRESSED.contains(type);
+    }
+
+    static boolean isCompressible(String contentType) {
+        String type = normalize(contentType);
+        if (type == null) {
+            return false;
+        }
+        return type.startsWith("text/")
+            || type.endsWith("+json")
+            || type.endsWith("+xml")
+            || COMPRESSIBLE.contains(type);
+    }
+
+    /**
+     * Whether an {@code Accept-Encoding} header admits gzip. An explicit
+     * {@code gzip} (or {@code x-gzip}) entry decides by its q-value; otherwise
+     * {@code *} does. A q-value of zero means "not acceptable".
+     */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        double gzipQuality = -1;
+        double wildcardQuality = -1;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            if (name.equalsIgnoreCase("gzip") || name.equalsIgnoreCase("x-gzip")) {
+                gzipQuality = Math.max(gzipQuality, quality(parts));
+            } else if (name.equals("*")) {
+                wildcardQuality = Math.max(wildcardQuality, quality(parts));
+            }
+        }
+        return gzipQuality >= 0 ? gzipQuality > 0 : wildcardQuality > 0;
+    }
+
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.length() > 2 && (parameter.charAt(0) == 'q' || parameter.charAt(0) == 'Q')
+                    && parameter.charAt(1) == '=') {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException ex) {
+                    // A malformed weight makes the entry unusable
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private static String normalize(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        int separator = contentType.indexOf(';');
+        String type = separator >= 0 ? contentType.substring(0, separator) : contentType;
+        return type.trim().toLowerCase(Locale.ROOT);
+    }
+}
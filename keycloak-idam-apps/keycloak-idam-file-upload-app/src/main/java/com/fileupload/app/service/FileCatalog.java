@@ -0,0 +1,377 @@
+package com.fileupload.app.service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.fileupload.app.dto.FileInfo;
+
+/**
+ * Column-oriented, in-heap catalog of uploaded file metadata.
+ *
+ * Each entry is spread over primitive arrays (UUID as two longs, timestamp as
+ * epoch millis, owner and content type as dictionary codes) so the per-file cost
+ * is a handful of array cells plus the original file name. {@link FileInfo}
+ * objects are only materialized when a caller asks for them.
+ *
+ * Slots of the same owner are chained through two more int columns, so
+ * listing a user's files walks only that user's slots instead of the whole
+ * catalog, and holds the read lock for just as long.
+ */
+public class FileCatalog {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int FREE = -2;
+    private static final int NO_VALUE = -1;
+    private static final int NONE = -1;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Dictionary owners = new Dictionary();
+    private final Dictionary contentTypes = new Dictionary();
+
+    private long[] idHigh = new long[INITIAL_CAPACITY];
+    private long[] idLow = new long[INITIAL_CAPACITY];
+    private long[] sizes = new long[INITIAL_CAPACITY];
+    private long[] uploadedAt = new long[INITIAL_CAPACITY];
+    private int[] ownerCodes = new int[INITIAL_CAPACITY];
+    private int[] contentTypeCodes = new int[INITIAL_CAPACITY];
+    private boolean[] compressed = new boolean[INITIAL_CAPACITY];
+    private String[] originalFileNames = new String[INITIAL_CAPACITY];
+
+    // Doubly linked list of slots per owner code, head slot per code or NONE
+    private int[] ownerNext = new int[INITIAL_CAPACITY];
+    private int[] ownerPrev = new int[INITIAL_CAPACITY];
+    private int[] ownerHeads = emptyHeads(16);
+
+    private int highWater;
+    private int liveCount;
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+
+    // Open-addressing index from UUID to slot (slot + 1, 0 means empty), linear probing.
+    private int[] index = new int[INITIAL_CAPACITY * 2];
+
+    public void put(UUID id, String originalFileName, String contentType, long size,
+                    String owner, long uploadedAtMillis, boolean storedCompressed) {
+        lock.writeLock().lock();
+        try {
+            long high = id.getMostSignificantBits();
+            long low = id.getLeastSignificantBits();
+            int existing = findSlot(high, low);
+            int slot = existing >= 0 ? existing : allocateSlot();
+            int ownerCode = owners.encode(owner);
+            if (existing < 0) {
+                linkOwner(slot, ownerCode);
+            } else if (ownerCodes[slot] != ownerCode) {
+                unlinkOwner(slot, ownerCodes[slot]);
+                linkOwner(slot, ownerCode);
+            }
+
+            idHigh[slot] = high;
+            idLow[slot] = low;
+            sizes[slot] = size;
+            uploadedAt[slot] = uploadedAtMillis;
+            ownerCodes[slot] = ownerCode;
+            contentTypeCodes[slot] = contentTypes.encode(contentType);
+            compressed[slot] = storedCompressed;
+            originalFileNames[slot] = originalFileName;
+
+            if (existing < 0) {
+                liveCount++;
+                if (liveCount * 2 > index.length) {
+                    rebuildIndex(index.length * 2);
+                } else {
+                    insertIndex(high, low, slot);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public FileInfo get(String fileId) {
+        UUID id = parse(fileId);
+        if (id == null) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            int slot = findSlot(id.getMostSignificantBits(), id.getLeastSignificantBits());
+            return slot >= 0 ? materialize(slot) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean remove(String fileId) {
+        UUID id = parse(fileId);
+        if (id == null) {
+            return false;
+        }
+        lock.writeLock().lock();
+        try {
+            int slot = removeIndex(id.getMostSignificantBits(), id.getLeastSignificantBits());
+            if (slot < 0) {
+                return false;
+            }
+            unlinkOwner(slot, ownerCodes[slot]);
+            ownerCodes[slot] = FREE;
+            originalFileNames[slot] = null;
+            if (freeCount == freeSlots.length) {
+                freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+            }
+            freeSlots[freeCount++] = slot;
+            liveCount--;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<FileInfo> findByOwner(String owner) {
+        lock.readLock().lock();
+        try {
+            int ownerCode = owners.lookup(owner);
+            if (ownerCode == NO_VALUE || ownerCode >= ownerHeads.length) {
+                return new ArrayList<>();
+            }
+            List<FileInfo> files = new ArrayList<>();
+            for (int slot = ownerHeads[ownerCode]; slot != NONE; slot = ownerNext[slot]) {
+                files.add(materialize(slot));
+            }
+            files.sort(Comparator.comparing(FileInfo::getUploadedAt).reversed());
+            return files;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Approximate retained heap of the catalog's own structures, excluding the
+     * original file name strings which both representations must keep.
+     */
+    public long estimatedFootprintBytes() {
+        lock.readLock().lock();
+        try {
+            long columns = (long) idHigh.length * (8 + 8 + 8 + 8 + 4 + 4 + 1 + 4 + 4 + 4);
+            long indexBytes = (long) index.length * 4 + (long) freeSlots.length * 4 + (long) ownerHeads.length * 4;
+            return columns + indexBytes + owners.footprintBytes() + contentTypes.footprintBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private FileInfo materialize(int slot) {
+        String id = new UUID(idHigh[slot], idLow[slot]).toString();
+        String originalFileName = originalFileNames[slot];
+        return FileInfo.builder()
+            .id(id)
+            .fileName(id + "_" + originalFileName)
+            .originalFileName(originalFileName)
+            .contentType(contentTypes.decode(contentTypeCodes[slot]))
+            .size(sizes[slot])
+            .uploadedBy(owners.decode(ownerCodes[slot]))
+            .uploadedAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(uploadedAt[slot]), ZoneId.systemDefault()))
+            .downloadUrl("/api/files/" + id + "/download")
+            .compressed(compressed[slot])
+            .build();
+    }
+
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (highWater == idHigh.length) {
+            int capacity = idHigh.length * 2;
+            idHigh = Arrays.copyOf(idHigh, capacity);
+            idLow = Arrays.copyOf(idLow, capacity);
+            sizes = Arrays.copyOf(sizes, capacity);
+            uploadedAt = Arrays.copyOf(uploadedAt, capacity);
+            ownerCodes = Arrays.copyOf(ownerCodes, capacity);
+            contentTypeCodes = Arrays.copyOf(contentTypeCodes, capacity);
+            compressed = Arrays.copyOf(compressed, capacity);
+            originalFileNames = Arrays.copyOf(originalFileNames, capacity);
+            ownerNext = Arrays.copyOf(ownerNext, capacity);
+            ownerPrev = Arrays.copyOf(ownerPrev, capacity);
+        }
+        return highWater++;
+    }
+
+    private void linkOwner(int slot, int ownerCode) {
+        if (ownerCode < 0) {
+            return;
+        }
+        if (ownerCode >= ownerHeads.length) {
+            int length = ownerHeads.length;
+            ownerHeads = Arrays.copyOf(ownerHeads, Math.max(length * 2, ownerCode + 1));
+            Arrays.fill(ownerHeads, length, ownerHeads.length, NONE);
+        }
+        int head = ownerHeads[ownerCode];
+        ownerPrev[slot] = NONE;
+        ownerNext[slot] = head;
+        if (head != NONE) {
+            ownerPrev[head] = slot;
+        }
+        ownerHeads[ownerCode] = slot;
+    }
+
+    private void unlinkOwner(int slot, int ownerCode) {
+        if (ownerCode < 0) {
+            return;
+        }
+        int prev = ownerPrev[slot];
+        int next = ownerNext[slot];
+        if (prev != NONE) {
+            ownerNext[prev] = next;
+        } else {
+            ownerHeads[ownerCode] = next;
+        }
+        if (next != NONE) {
+            ownerPrev[next] = prev;
+        }
+    }
+
+    private static int[] emptyHeads(int length) {
+        int[] heads = new int[length];
+        Arrays.fill(heads, NONE);
+        return heads;
+    }
+
+    private int findSlot(long high, long low) {
+        int mask = index.length - 1;
+        for (int i = hash(high, low) & mask; ; i = (i + 1) & mask) {
+            int entry = index[i];
+            if (entry == 0) {
+                return -1;
+            }
+            int slot = entry - 1;
+            if (idHigh[slot] == high && idLow[slot] == low) {
+                return slot;
+            }
+        }
+    }
+
+    private void insertIndex(long high, long low, int slot) {
+        int mask = index.length - 1;
+        int i = hash(high, low) & mask;
+        while (index[i] != 0) {
+            i = (i + 1) & mask;
+        }
+        index[i] = slot + 1;
+    }
+
+    private int removeIndex(long high, long low) {
+        int mask = index.length - 1;
+        int i = hash(high, low) & mask;
+        while (true) {
+            int entry = index[i];
+            if (entry == 0) {
+                return -1;
+            }
+            int slot = entry - 1;
+            if (idHigh[slot] == high && idLow[slot] == low) {
+                break;
+            }
+            i = (i + 1) & mask;
+        }
+        int removed = index[i] - 1;
+
+        // Backward-shift deletion keeps probe chains intact without tombstones.
+        int gap = i;
+        for (int j = (gap + 1) & mask; index[j] != 0; j = (j + 1) & mask) {
+            int slot = index[j] - 1;
+            int home = hash(idHigh[slot], idLow[slot]) & mask;
+            if (((j - home) & mask) >= ((j - gap) & mask)) {
+                index[gap] = index[j];
+                gap = j;
+            }
+        }
+        index[gap] = 0;
+        return removed;
+    }
+
+    private void rebuildIndex(int capacity) {
+        index = new int[capacity];
+        for (int slot = 0; slot < highWater; slot++) {
+            if (ownerCodes[slot] != FREE) {
+                insertIndex(idHigh[slot], idLow[slot], slot);
+            }
+        }
+    }
+
+    // Package-private so tests can build collision chains
+    static int hash(long high, long low) {
+        long h = high * 0x9E3779B97F4A7C15L ^ low;
+        h ^= h >>> 32;
+        h *= 0xC2B2AE3D27D4EB4FL;
+        return (int) (h ^ (h >>> 29));
+    }
+
+    private static UUID parse(String fileId) {
+        if (fileId == null) {
+            return null;
+        }
+        try {
+            return UUID.fromString(fileId);
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Append-only string dictionary. Codes are never reclaimed; owners and
+     * content types form a small, slowly growing vocabulary.
+     */
+    private static final class Dictionary {
+
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        int encode(String value) {
+            if (value == null) {
+                return NO_VALUE;
+            }
+            Integer code = codes.get(value);
+            if (code == null) {
+                code = values.size();
+                values.add(value);
+                codes.put(value, code);
+            }
+            return code;
+        }
+
+        int lookup(String value) {
+            Integer code = value == null ? null : codes.get(value);
+            return code == null ? NO_VALUE : code;
+        }
+
+        String decode(int code) {
+            return code < 0 ? null : values.get(code);
+        }
+
+        long footprintBytes() {
+            long bytes = 0;
+            for (String value : values) {
+                bytes += 40 + value.length() + 48;
+            }
+            return bytes;
+        }
+    }
+}
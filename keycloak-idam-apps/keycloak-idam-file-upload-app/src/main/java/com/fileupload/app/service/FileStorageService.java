@@ -1,39 +1,94 @@
 package com.fileupload.app.service;
 
+import java.io.FilterInputStream;
 import java.io.IOException;
-import java.net.MalformedURLException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
-import java.time.LocalDateTime;
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.InputStreamSource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
+import org.springframework.http.HttpRange;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.fileupload.app.dto.BatchDeleteResponse;
+import com.fileupload.app.dto.BatchUploadResponse;
+import com.fileupload.app.dto.FileDownload;
 import com.fileupload.app.dto.FileInfo;
 import com.fileupload.app.exception.FileStorageException;
+import com.fileupload.app.exception.RangeNotSatisfiableException;
+import com.fileupload.app.observability.RequestTimings;
 
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 
 @Service
 public class FileStorageService {
 
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+
     @Value("${app.upload.dir}")
     private String uploadDir;
 
+    @Value("${app.upload.batch-parallelism:4}")
+    private int batchParallelism;
+
+    @Value("${app.upload.compression.enabled:true}")
+    private boolean compressionEnabled;
+
+    @Value("${app.upload.compression.min-bytes:1024}")
+    private long compressionMinBytes;
+
     private Path fileStorageLocation;
-    private final Map<String, FileInfo> fileStore = new ConcurrentHashMap<>();
+    private ExecutorService batchExecutor;
+    private Semaphore batchPermits;
+    private final FileCatalog fileStore = new FileCatalog();
+    private final StorageQuotaService quotaService;
+    private final BandwidthThrottle bandwidthThrottle;
+    private final HotFileCache hotFileCache;
+    private final TransferMetrics transferMetrics;
+    private final Tracer tracer;
+
+    public FileStorageService(StorageQuotaService quotaService, BandwidthThrottle bandwidthThrottle,
+                              HotFileCache hotFileCache, TransferMetrics transferMetrics,
+                              ObjectProvider<Tracer> tracer) {
+        this.quotaService = quotaService;
+        this.bandwidthThrottle = bandwidthThrottle;
+        this.hotFileCache = hotFileCache;
+        this.transferMetrics = transferMetrics;
+        this.tracer = tracer.getIfAvailable(() -> Tracer.NOOP);
+    }
 
     @PostConstruct
     public void init() {
@@ -43,64 +98,186 @@ public class FileStorageService {
         } catch (Exception ex) {
             throw new FileStorageException("Could not create upload directory", ex);
         }
+        // One virtual thread per file; the permits keep disk writes at batch-parallelism
+        this.batchExecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("batch-upload-", 0).factory());
+        this.batchPermits = new Semaphore(batchParallelism);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        batchExecutor.shutdown();
     }
 
-    public FileInfo storeFile(MultipartFile file, String username) {
+    public FileInfo storeFile(MultipartFile file, String username,
+                              Collection<? extends GrantedAuthority> authorities) {
         String originalFileName = StringUtils.cleanPath(file.getOriginalFilename());
-        
+        if (originalFileName.contains("..")) {
+            throw new FileStorageException("Invalid filename: " + originalFileName);
+        }
+
+        // Both checks run before anything touches the upload directory
+        bandwidthThrottle.checkAdmission(username);
+        long size = file.getSize();
+        quotaService.reserve(username, size);
+        // The body has already been received by now; charge it so the user's next transfers wait
+        bandwidthThrottle.charge(username, authorities, size);
+
+        UUID id = UUID.randomUUID();
+        String fileId = id.toString();
+        String fileName = fileId + "_" + originalFileName;
+        Path targetLocation = this.fileStorageLocation.resolve(fileName);
+        boolean compress = shouldCompress(file.getContentType(), size);
+        // Until the file is in the catalog, any failure gives the reservation back
+        boolean committed = false;
         try {
-            if (originalFileName.contains("..")) {
-                throw new FileStorageException("Invalid filename: " + originalFileName);
+            TransferMetrics.Upload upload = transferMetrics.startUpload();
+            long span = RequestTimings.start(RequestTimings.Span.STORAGE);
+            Span traceSpan = tracer.nextSpan().name("file store")
+                .tag("file.size", String.valueOf(size))
+                .tag("file.compressed", String.valueOf(compress))
+                .start();
+            boolean stored = false;
+            try (Tracer.SpanInScope scope = tracer.withSpan(traceSpan);
+                 InputStream in = file.getInputStream();
+                 OutputStream out = openStorageStream(targetLocation, compress)) {
+                in.transferTo(out);
+                stored = true;
+            } catch (IOException ex) {
+                // Also reached when closing the output fails after the copy
+                stored = false;
+                traceSpan.error(ex);
+                throw new FileStorageException("Failed to store file " + originalFileName, ex);
+            } finally {
+                traceSpan.end();
+                RequestTimings.stop(RequestTimings.Span.STORAGE, span);
+                transferMetrics.uploadFinished(upload, size, stored);
             }
 
-            String fileId = UUID.randomUUID().toString();
-            String fileName = fileId + "_" + originalFileName;
-            Path targetLocation = this.fileStorageLocation.resolve(fileName);
-            Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
-
-            FileInfo fileInfo = FileInfo.builder()
-                .id(fileId)
-                .fileName(fileName)
-                .originalFileName(originalFileName)
-                .contentType(file.getContentType())
-                .size(file.getSize())
-                .uploadedBy(username)
-                .uploadedAt(LocalDateTime.now())
-                .downloadUrl("/api/files/" + fileId + "/download")
-                .build();
-
-            fileStore.put(fileId, fileInfo);
-            return fileInfo;
-        } catch (IOException ex) {
-            throw new FileStorageException("Failed to store file " + originalFileName, ex);
+            fileStore.put(id, originalFileName, file.getContentType(), size,
+                username, System.currentTimeMillis(), compress);
+            committed = true;
+        } finally {
+            if (!committed) {
+                quotaService.release(username, size);
+                deleteQuietly(targetLocation);
+            }
         }
+        return fileStore.get(fileId);
     }
 
-    public Resource loadFileAsResource(String fileId, String username) {
-        try {
-            FileInfo fileInfo = fileStore.get(fileId);
-            if (fileInfo == null || !fileInfo.getUploadedBy().equals(username)) {
-                throw new FileStorageException("File not found");
+    public BatchUploadResponse storeFiles(List<MultipartFile> files, String username,
+                                          Collection<? extends GrantedAuthority> authorities) {
+        // The batch is turned away as a whole, as a single upload would be, rather than stored in part
+        bandwidthThrottle.checkAdmission(username);
+        quotaService.checkAvailable(username, files.stream().mapToLong(MultipartFile::getSize).sum());
+
+        List<Future<FileInfo>> results = new ArrayList<>(files.size());
+        Span parent = tracer.currentSpan();
+        for (MultipartFile file : files) {
+            results.add(batchExecutor.submit(() -> {
+                batchPermits.acquire();
+                try (Tracer.SpanInScope scope = tracer.withSpan(parent)) {
+                    return storeFile(file, username, authorities);
+                } finally {
+                    batchPermits.release();
+                }
+            }));
+        }
+
+        List<FileInfo> stored = new ArrayList<>(files.size());
+        Map<String, String> failed = new LinkedHashMap<>();
+        for (int i = 0; i < results.size(); i++) {
+            try {
+                stored.add(results.get(i).get());
+            } catch (ExecutionException ex) {
+                failed.put(files.get(i).getOriginalFilename(), ex.getCause().getMessage());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new FileStorageException("Batch upload interrupted", ex);
             }
+        }
+        return BatchUploadResponse.builder()
+            .files(stored)
+            .failed(failed)
+            .build();
+    }
 
-            Path filePath = this.fileStorageLocation.resolve(fileInfo.getFileName()).normalize();
-            Resource resource = new UrlResource(filePath.toUri());
-            
-            if (resource.exists()) {
-                return resource;
+    /**
+     * Resolves a download. Files stored gzip-compressed are handed out as-is when
+     * the client accepts gzip, and decompressed on the fly otherwise.
+     *
+     * A {@code Range} header is served from the decoded content, since that is
+     * what its offsets refer to. Several ranges are coalesced into the one that
+     * covers them all.
+     */
+    public FileDownload openDownload(String fileId, String username,
+                                     Collection<? extends GrantedAuthority> authorities, boolean acceptsGzip,
+                                     String rangeHeader) {
+        FileInfo fileInfo = getFileInfo(fileId, username);
+        long[] range = rangeHeader == null ? null : resolveRange(rangeHeader, fileInfo.getSize());
+        bandwidthThrottle.checkAdmission(username);
+
+        long span = RequestTimings.start(RequestTimings.Span.STORAGE);
+        Span traceSpan = tracer.nextSpan().name("file open").start();
+        Resource stored = null;
+        long storedSize;
+        ByteBuffer cached;
+        try (Tracer.SpanInScope scope = tracer.withSpan(traceSpan)) {
+            Path storedPath = this.fileStorageLocation.resolve(fileInfo.getFileName()).normalize();
+            // Keyed by id and pre-filtered by the catalog size (gzip only shrinks what it stores),
+            // so a hit is served without touching the disk
+            cached = hotFileCache.lookup(fileId, storedPath, fileInfo.getSize());
+            if (cached != null) {
+                storedSize = cached.remaining();
             } else {
-                throw new FileStorageException("File not found");
+                stored = new UrlResource(storedPath.toUri());
+                if (!stored.exists()) {
+                    throw new FileStorageException("File not found");
+                }
+                storedSize = stored.contentLength();
             }
-        } catch (MalformedURLException ex) {
+            traceSpan.tag("file.cached", String.valueOf(cached != null));
+        } catch (IOException ex) {
+            traceSpan.error(ex);
             throw new FileStorageException("File not found", ex);
+        } finally {
+            traceSpan.end();
+            RequestTimings.stop(RequestTimings.Span.STORAGE, span);
+        }
+        InputStreamSource storedSource = cached != null
+            ? () -> HotFileCache.asInputStream(cached)
+            : stored;
+
+        boolean sendEncoded = fileInfo.isCompressed() && acceptsGzip && range == null;
+        InputStreamSource content = sendEncoded ? storedSource : () -> openContentStream(fileInfo, storedSource);
+        if (range != null) {
+            InputStreamSource whole = content;
+            // Skipping seeks on disk and in the cache; only gzip-stored files decompress up to the start
+            content = () -> {
+                InputStream in = whole.getInputStream();
+                in.skipNBytes(range[0]);
+                return new RangeInputStream(in, range[1] - range[0] + 1);
+            };
+        }
+        InputStreamSource source = content;
+        Resource resource = new InputStreamResource(() -> transferMetrics.meterDownload(bandwidthThrottle.throttle(
+            source.getInputStream(), username, authorities), sendEncoded ? "gzip" : null));
+
+        FileDownload.FileDownloadBuilder download = FileDownload.builder()
+            .fileInfo(fileInfo)
+            .resource(resource)
+            .contentEncoding(sendEncoded ? "gzip" : null)
+            .contentLength(sendEncoded ? storedSize : fileInfo.getSize());
+        if (range != null) {
+            download
+                .contentLength(range[1] - range[0] + 1)
+                .contentRange("bytes " + range[0] + "-" + range[1] + "/" + fileInfo.getSize());
         }
+        return download.build();
     }
 
     public List<FileInfo> getAllFiles(String username) {
-        return fileStore.values().stream()
-            .filter(file -> file.getUploadedBy().equals(username))
-            .sorted(Comparator.comparing(FileInfo::getUploadedAt).reversed())
-            .collect(Collectors.toList());
+        return fileStore.findByOwner(username);
     }
 
     public FileInfo getFileInfo(String fileId, String username) {
@@ -120,9 +297,184 @@ public class FileStorageService {
         try {
             Path filePath = this.fileStorageLocation.resolve(fileInfo.getFileName()).normalize();
             Files.deleteIfExists(filePath);
-            fileStore.remove(fileId);
+            if (fileStore.remove(fileId)) {
+                quotaService.release(username, fileInfo.getSize());
+            }
+            // After the file is gone, so a cache load racing this delete either fails or is discarded
+            hotFileCache.invalidate(fileId);
         } catch (IOException ex) {
             throw new FileStorageException("Failed to delete file", ex);
         }
     }
+
+    public BatchDeleteResponse deleteFiles(List<String> fileIds, String username) {
+        List<String> deleted = new ArrayList<>(fileIds.size());
+        Map<String, String> failed = new LinkedHashMap<>();
+        for (String fileId : fileIds) {
+            try {
+                deleteFile(fileId, username);
+                deleted.add(fileId);
+            } catch (FileStorageException ex) {
+                failed.put(fileId, ex.getMessage());
+            }
+        }
+        return BatchDeleteResponse.builder()
+            .deleted(deleted)
+            .failed(failed)
+            .build();
+    }
+
+    /**
+     * Streams the given files as a ZIP straight into {@code out}. Media that is
+     * already compressed is stored rather than deflated again.
+     */
+    public void writeArchive(List<FileInfo> selected, String username,
+                             Collection<? extends GrantedAuthority> authorities, OutputStream out) throws IOException {
+        Set<String> entryNames = new HashSet<>();
+        try (ZipOutputStream zip = new ZipOutputStream(out)) {
+            for (FileInfo fileInfo : selected) {
+                zip.setLevel(ContentTypes.isCompressed(fileInfo.getContentType())
+                    ? Deflater.NO_COMPRESSION : Deflater.BEST_SPEED);
+                zip.putNextEntry(new ZipEntry(uniqueEntryName(fileInfo.getOriginalFileName(), entryNames)));
+                Path filePath = this.fileStorageLocation.resolve(fileInfo.getFileName()).normalize();
+                InputStream content = openContentStream(fileInfo, () -> Files.newInputStream(filePath));
+                try (InputStream in = bandwidthThrottle.throttle(content, username, authorities)) {
+                    in.transferTo(zip);
+                }
+                zip.closeEntry();
+            }
+        }
+    }
+
+    /**
+     * Checks ownership of every id up front so an archive request fails before
+     * the response has been committed.
+     */
+    public List<FileInfo> resolveArchiveEntries(List<String> fileIds, String username) {
+        List<FileInfo> selected = new ArrayList<>(fileIds.size());
+        for (String fileId : new LinkedHashSet<>(fileIds)) {
+            selected.add(getFileInfo(fileId, username));
+        }
+        return selected;
+    }
+
+    private static String uniqueEntryName(String name, Set<String> used) {
+        String candidate = name;
+        for (int n = 1; !used.add(candidate); n++) {
+            int dot = name.lastIndexOf('.');
+            candidate = dot > 0
+                ? name.substring(0, dot) + " (" + n + ")" + name.substring(dot)
+                : name + " (" + n + ")";
+        }
+        return candidate;
+    }
+
+    /**
+     * First and last byte of the span covering every range in {@code rangeHeader}.
+     */
+    private static long[] resolveRange(String rangeHeader, long length) {
+        long first = Long.MAX_VALUE;
+        long last = -1;
+        try {
+            for (HttpRange range : HttpRange.parseRanges(rangeHeader)) {
+                long start = range.getRangeStart(length);
+                long end = range.getRangeEnd(length);
+                if (start >= length || start > end) {
+                    continue;
+                }
+                first = Math.min(first, start);
+                last = Math.max(last, end);
+            }
+        } catch (IllegalArgumentException ex) {
+            throw new RangeNotSatisfiableException("Malformed range " + rangeHeader, length);
+        }
+        if (last < 0) {
+            throw new RangeNotSatisfiableException("No satisfiable range in " + rangeHeader, length);
+        }
+        return new long[] {first, last};
+    }
+
+    private boolean shouldCompress(String contentType, long size) {
+        return compressionEnabled
+            && size >= compressionMinBytes
+            && ContentTypes.isCompressible(contentType);
+    }
+
+    private OutputStream openStorageStream(Path target, boolean compress) throws IOException {
+        OutputStream out = Files.newOutputStream(target);
+        if (!compress) {
+            return out;
+        }
+        try {
+            return new GZIPOutputStream(out, STREAM_BUFFER_SIZE) {
+                {
+                    def.setLevel(Deflater.BEST_SPEED);
+                }
+            };
+        } catch (IOException | RuntimeException ex) {
+            // The constructor writes the gzip header, so it can fail with the file already open
+            out.close();
+            throw ex;
+        }
+    }
+
+    private static InputStream openContentStream(FileInfo fileInfo, InputStreamSource storedSource) throws IOException {
+        InputStream in = storedSource.getInputStream();
+        return fileInfo.isCompressed() ? new GZIPInputStream(in, STREAM_BUFFER_SIZE) : in;
+    }
+
+    /** Ends after {@code remaining} bytes, so a range reads to its own end of stream. */
+    private static final class RangeInputStream extends FilterInputStream {
+
+        private long remaining;
+
+        RangeInputStream(InputStream in, long length) {
+            super(in);
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int b = super.read();
+            if (b >= 0) {
+                remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int n = super.read(b, off, (int) Math.min(len, remaining));
+            if (n > 0) {
+                remaining -= n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(Math.min(n, remaining));
+            remaining -= skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(super.available(), remaining);
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+            // Best effort cleanup of a partial upload
+        }
+    }
 }
\ No newline at end of file
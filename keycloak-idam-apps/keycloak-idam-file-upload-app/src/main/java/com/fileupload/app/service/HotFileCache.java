@@ -0,0 +1,232 @@
+package com.fileupload.app.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Size-bounded LRU cache of small, frequently downloaded files held in direct
+ * (off-heap) buffers. A file is admitted on its second request within the
+ * tracking window, so one-off downloads never displace hot entries.
+ *
+ * A hit is answered from memory alone; the file is only opened on a miss.
+ * A load that overlaps an {@link #invalidate} is served but not cached, so a
+ * file deleted while it was being read never stays resident.
+ */
+@Slf4j
+@Service
+public class HotFileCache {
+
+    private static final int MAX_TRACKED_CANDIDATES = 10_000;
+
+    @Value("${app.upload.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.upload.cache.max-bytes:67108864}")
+    private long maxBytes;
+
+    @Value("${app.upload.cache.max-entry-bytes:1048576}")
+    private long maxEntryBytes;
+
+    @Value("${app.upload.cache.admit-after:2}")
+    private int admitAfter;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<String, ByteBuffer> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private final Map<String, AtomicInteger> candidates = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final AtomicLong invalidations = new AtomicLong();
+    private long residentBytes;
+
+    public HotFileCache(MeterRegistry meterRegistry) {
+        Gauge.builder("files.cache.resident.bytes", this, HotFileCache::getResidentBytes)
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        Gauge.builder("files.cache.hit.ratio", this, HotFileCache::getHitRatio)
+            .register(meterRegistry);
+        Gauge.builder("files.cache.entries", this, HotFileCache::getEntryCount)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Returns a read-only view of the cached bytes of {@code storedPath}, loading
+     * it when the file has become hot, or {@code null} when it is not cached.
+     * {@code maxStoredSize} bounds the size on disk, so files that could never
+     * be admitted are turned away without a stat.
+     */
+    public ByteBuffer lookup(String fileId, Path storedPath, long maxStoredSize) {
+        if (!enabled || maxStoredSize > maxEntryBytes) {
+            return null;
+        }
+        ByteBuffer cached = get(fileId);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        if (!admit(fileId)) {
+            return null;
+        }
+        long generation = invalidations.get();
+        try {
+            ByteBuffer loaded = load(storedPath, maxEntryBytes);
+            return loaded == null ? null : put(fileId, loaded, generation);
+        } catch (IOException ex) {
+            log.warn("Could not cache file {}: {}", fileId, ex.getMessage());
+            return null;
+        }
+    }
+
+    public void invalidate(String fileId) {
+        candidates.remove(fileId);
+        lock.lock();
+        try {
+            invalidations.incrementAndGet();
+            ByteBuffer removed = entries.remove(fileId);
+            if (removed != null) {
+                residentBytes -= removed.capacity();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getResidentBytes() {
+        lock.lock();
+        try {
+            return residentBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getEntryCount() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public double getHitRatio() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    private ByteBuffer get(String fileId) {
+        lock.lock();
+        try {
+            ByteBuffer buffer = entries.get(fileId);
+            return buffer == null ? null : buffer.asReadOnlyBuffer();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean admit(String fileId) {
+        if (candidates.size() > MAX_TRACKED_CANDIDATES) {
+            candidates.clear();
+        }
+        int seen = candidates.computeIfAbsent(fileId, key -> new AtomicInteger()).incrementAndGet();
+        if (seen < admitAfter) {
+            return false;
+        }
+        candidates.remove(fileId);
+        return true;
+    }
+
+    private ByteBuffer put(String fileId, ByteBuffer buffer, long generation) {
+        lock.lock();
+        try {
+            if (invalidations.get() != generation) {
+                // The file may have been deleted while it was read; serve it once, don't keep it
+                return buffer.asReadOnlyBuffer();
+            }
+            ByteBuffer previous = entries.put(fileId, buffer);
+            if (previous != null) {
+                residentBytes -= previous.capacity();
+            }
+            residentBytes += buffer.capacity();
+            Iterator<ByteBuffer> eldest = entries.values().iterator();
+            while (residentBytes > maxBytes && eldest.hasNext()) {
+                residentBytes -= eldest.next().capacity();
+                eldest.remove();
+            }
+            return buffer.asReadOnlyBuffer();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static ByteBuffer load(Path path, long maxSize) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > maxSize) {
+                return null;
+            }
+            ByteBuffer buffer = ByteBuffer.allocateDirect((int) size);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // keep reading until the buffer is full or the file ends
+            }
+            buffer.flip();
+            return buffer;
+        }
+    }
+
+    /**
+     * Reads a cached buffer through an independent cursor, so concurrent
+     * downloads of the same entry never interfere.
+     */
+    static InputStream asInputStream(ByteBuffer buffer) {
+        ByteBuffer source = buffer.duplicate();
+        return new InputStream() {
+            @Override
+            public int read() {
+                return source.hasRemaining() ? source.get() & 0xFF : -1;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                if (!source.hasRemaining()) {
+                    return -1;
+                }
+                int n = Math.min(len, source.remaining());
+                source.get(b, off, n);
+                return n;
+            }
+
+            @Override
+            public long skip(long n) {
+                int skipped = (int) Math.max(0, Math.min(n, source.remaining()));
+                source.position(source.position() + skipped);
+                return skipped;
+            }
+
+            @Override
+            public int available() {
+                return source.remaining();
+            }
+        };
+    }
+}
@@ -0,0 +1,84 @@
+package com.fileupload.app.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.fileupload.app.exception.QuotaExceededException;
+
+/**
+ * Tracks bytes stored per user and in total with striped {@link LongAdder}
+ * counters, so concurrent uploads neither contend on one cache line nor retry
+ * a CAS loop.
+ *
+ * A reservation adds first and then checks the sum, undoing the add when the
+ * limit is exceeded. Because every reservation reads the counter after its
+ * own add, of two concurrent reservations that together overshoot, at least
+ * one sees both and backs out; the limit is never exceeded, at the cost of an
+ * occasional rejection right at the limit.
+ */
+@Service
+public class StorageQuotaService {
+
+    @Value("${app.quota.per-user-bytes:1073741824}")
+    private long perUserLimit;
+
+    @Value("${app.quota.global-bytes:21474836480}")
+    private long globalLimit;
+
+    private final Map<String, LongAdder> usage = new ConcurrentHashMap<>();
+    private final LongAdder globalUsage = new LongAdder();
+
+    public void reserve(String username, long bytes) {
+        LongAdder userUsage = usage.computeIfAbsent(username, key -> new LongAdder());
+        if (!tryAdd(userUsage, bytes, perUserLimit)) {
+            throw new QuotaExceededException("Storage quota exceeded for user " + username);
+        }
+        if (!tryAdd(globalUsage, bytes, globalLimit)) {
+            userUsage.add(-bytes);
+            throw new QuotaExceededException("Storage capacity exhausted");
+        }
+    }
+
+    /**
+     * Fails when {@code bytes} more would not fit right now. Nothing is
+     * reserved; each stored file still reserves its own share.
+     */
+    public void checkAvailable(String username, long bytes) {
+        if (getUsage(username) + bytes > perUserLimit) {
+            throw new QuotaExceededException("Storage quota exceeded for user " + username);
+        }
+        if (getGlobalUsage() + bytes > globalLimit) {
+            throw new QuotaExceededException("Storage capacity exhausted");
+        }
+    }
+
+    public void release(String username, long bytes) {
+        LongAdder userUsage = usage.get(username);
+        if (userUsage != null) {
+            userUsage.add(-bytes);
+        }
+        globalUsage.add(-bytes);
+    }
+
+    public long getUsage(String username) {
+        LongAdder userUsage = usage.get(username);
+        return userUsage == null ? 0 : userUsage.sum();
+    }
+
+    public long getGlobalUsage() {
+        return globalUsage.sum();
+    }
+
+    private static boolean tryAdd(LongAdder counter, long bytes, long limit) {
+        counter.add(bytes);
+        if (counter.sum() > limit) {
+            counter.add(-bytes);
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,148 @@
+package com.fileupload.app.service;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.springframework.stereotype.Component;
+
+import com.fileupload.app.observability.FileTransferEvent;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Upload and download meters. Throughput is the rate of the size summaries'
+ * totals; latency covers the whole transfer, including throttling. Each
+ * transfer is also recorded as a JFR {@link FileTransferEvent}.
+ */
+@Component
+public class TransferMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final Meter.MeterProvider<Timer> uploadTimer;
+    private final DistributionSummary uploadSize;
+    private final Meter.MeterProvider<Timer> downloadTimer;
+    private final Meter.MeterProvider<DistributionSummary> downloadSize;
+
+    public TransferMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.uploadTimer = Timer.builder("files.upload")
+            .description("Time to receive and store an uploaded file")
+            .publishPercentileHistogram()
+            .withRegistry(meterRegistry);
+        this.uploadSize = DistributionSummary.builder("files.upload.size")
+            .description("Size of stored uploads")
+            .baseUnit("bytes")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        this.downloadTimer = Timer.builder("files.download")
+            .description("Time to stream a download to the client")
+            .publishPercentileHistogram()
+            .withRegistry(meterRegistry);
+        this.downloadSize = DistributionSummary.builder("files.download.size")
+            .description("Bytes sent per download")
+            .baseUnit("bytes")
+            .publishPercentileHistogram()
+            .withRegistry(meterRegistry);
+    }
+
+    public Upload startUpload() {
+        return new Upload(Timer.start(meterRegistry), startEvent("upload", null));
+    }
+
+    public void uploadFinished(Upload upload, long bytes, boolean stored) {
+        String outcome = stored ? "success" : "error";
+        upload.sample.stop(uploadTimer.withTags("outcome", outcome));
+        upload.event.finish(upload.startNanos, bytes, outcome);
+        if (stored) {
+            uploadSize.record(bytes);
+        }
+    }
+
+    /**
+     * Wraps a download stream so the transfer is recorded when it is closed.
+     * Streams closed before the end are tagged {@code aborted}.
+     */
+    public InputStream meterDownload(InputStream in, String encoding) {
+        String tag = encoding == null ? "identity" : encoding;
+        return new MeteredInputStream(in, tag, Timer.start(meterRegistry), startEvent("download", tag));
+    }
+
+    private static FileTransferEvent startEvent(String direction, String encoding) {
+        FileTransferEvent event = new FileTransferEvent();
+        event.direction = direction;
+        event.encoding = encoding;
+        event.begin();
+        return event;
+    }
+
+    public static final class Upload {
+
+        private final Timer.Sample sample;
+        private final FileTransferEvent event;
+        private final long startNanos = System.nanoTime();
+
+        private Upload(Timer.Sample sample, FileTransferEvent event) {
+            this.sample = sample;
+            this.event = event;
+        }
+    }
+
+    private final class MeteredInputStream extends FilterInputStream {
+
+        private final String encoding;
+        private final Timer.Sample sample;
+        private final FileTransferEvent event;
+        private final long startNanos = System.nanoTime();
+        private long bytes;
+        private boolean finished;
+        private boolean closed;
+
+        MeteredInputStream(InputStream in, String encoding, Timer.Sample sample, FileTransferEvent event) {
+            super(in);
+            this.encoding = encoding;
+            this.sample = sample;
+            this.event = event;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b < 0) {
+                finished = true;
+            } else {
+                bytes++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n < 0) {
+                finished = true;
+            } else {
+                bytes += n;
+            }
+            return n;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                if (!closed) {
+                    closed = true;
+                    String outcome = finished ? "success" : "aborted";
+                    sample.stop(downloadTimer.withTags("encoding", encoding, "outcome", outcome));
+                    downloadSize.withTags("encoding", encoding).record(bytes);
+                    event.finish(startNanos, bytes, outcome);
+                }
+            }
+        }
+    }
+}
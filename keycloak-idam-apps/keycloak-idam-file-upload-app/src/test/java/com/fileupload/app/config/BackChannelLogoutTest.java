@@ -0,0 +1,182 @@
+package com.fileupload.app.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.oauth2.core.oidc.OidcIdToken;
+import org.springframework.security.oauth2.core.oidc.user.DefaultOidcUser;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fileupload.app.controller.BackChannelLogoutController;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+
+import jakarta.servlet.http.HttpSessionEvent;
+
+/**
+ * Back-channel logout end to end minus HTTP: a logout token signed with a
+ * throwaway key, as {@link WarmupRunner} does, goes through the RS256 decoder,
+ * the controller's checks and the session index.
+ */
+class BackChannelLogoutTest {
+
+    private static final String ISSUER = "http://localhost:8081/realms/multi-app-realm";
+    private static final String CLIENT_ID = "file-upload-client";
+    private static final String EVENT = "http://schemas.openid.net/event/backchannel-logout";
+
+    private RSAKey key;
+    private LocalOidcSessionIndex index;
+    private BackChannelLogoutController controller;
+
+    @BeforeEach
+    void setUp() throws JOSEException {
+        key = new RSAKeyGenerator(2048).keyID("test").generate();
+        index = new LocalOidcSessionIndex();
+        ReflectionTestUtils.setField(index, "entryTtlSeconds", 3600L);
+        controller = new BackChannelLogoutController(
+            SecurityConfig.verifyingDecoder(new ImmutableJWKSet<>(new JWKSet(key.toPublicJWK()))), index);
+        ReflectionTestUtils.setField(controller, "issuer", ISSUER);
+        ReflectionTestUtils.setField(controller, "clientId", CLIENT_ID);
+    }
+
+    @Test
+    void endsSessionsOfTheKeycloakSession() throws JOSEException {
+        MockHttpSession first = login("sid-1", "alice");
+        MockHttpSession second = login("sid-1", "alice");
+        MockHttpSession other = login("sid-2", "alice");
+
+        ResponseEntity<?> response = controller.logout(logoutToken(claims -> claims
+            .claim("sid", "sid-1")
+            .subject("alice"), key));
+
+        assertThat(response.getStatusCode().value()).isEqualTo(200);
+        assertThat(first.isInvalid()).isTrue();
+        assertThat(second.isInvalid()).isTrue();
+        assertThat(other.isInvalid()).isFalse();
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void endsEverySessionOfTheSubjectWithoutSid() throws JOSEException {
+        MockHttpSession first = login("sid-1", "alice");
+        MockHttpSession second = login("sid-2", "alice");
+        MockHttpSession other = login("sid-3", "bob");
+
+        ResponseEntity<?> response = controller.logout(logoutToken(claims -> claims.subject("alice"), key));
+
+        assertThat(response.getStatusCode().value()).isEqualTo(200);
+        assertThat(first.isInvalid()).isTrue();
+        assertThat(second.isInvalid()).isTrue();
+        assertThat(other.isInvalid()).isFalse();
+    }
+
+    @Test
+    void rejectsTokenSignedWithAnotherKey() throws JOSEException {
+        MockHttpSession session = login("sid-1", "alice");
+        RSAKey otherKey = new RSAKeyGenerator(2048).keyID("test").generate();
+
+        ResponseEntity<?> response = controller.logout(logoutToken(claims -> claims.claim("sid", "sid-1"), otherKey));
+
+        assertThat(response.getStatusCode().value()).isEqualTo(400);
+        assertThat(session.isInvalid()).isFalse();
+    }
+
+    @Test
+    void rejectsTokenForAnotherClient() throws JOSEException {
+        MockHttpSession session = login("sid-1", "alice");
+
+        ResponseEntity<?> response = controller.logout(logoutToken(claims -> claims
+            .claim("sid", "sid-1")
+            .audience("other-client"), key));
+
+        assertThat(response.getStatusCode().value()).isEqualTo(400);
+        assertThat(session.isInvalid()).isFalse();
+    }
+
+    @Test
+    void rejectsTokenWithNonce() throws JOSEException {
+        MockHttpSession session = login("sid-1", "alice");
+
+        ResponseEntity<?> response = controller.logout(logoutToken(claims -> claims
+            .claim("sid", "sid-1")
+            .claim("nonce", "n-0S6_WzA2Mj"), key));
+
+        assertThat(response.getStatusCode().value()).isEqualTo(400);
+        assertThat(session.isInvalid()).isFalse();
+    }
+
+    @Test
+    void rejectsTokenWithoutLogoutEvent() throws JOSEException {
+        MockHttpSession session = login("sid-1", "alice");
+
+        ResponseEntity<?> response = controller.logout(logoutToken(claims -> claims
+            .claim("sid", "sid-1")
+            .claim("events", Map.of()), key));
+
+        assertThat(response.getStatusCode().value()).isEqualTo(400);
+        assertThat(session.isInvalid()).isFalse();
+    }
+
+    @Test
+    void forgetsDestroyedSessions() throws JOSEException {
+        MockHttpSession session = login("sid-1", "alice");
+        session.invalidate();
+        index.sessionDestroyed(new HttpSessionEvent(session));
+
+        assertThat(index.size()).isZero();
+        assertThat(index.logout("sid-1", "alice")).isZero();
+    }
+
+    private MockHttpSession login(String sid, String subject) {
+        MockHttpSession session = new MockHttpSession();
+        Instant now = Instant.now();
+        OidcIdToken idToken = OidcIdToken.withTokenValue("id-token")
+            .issuer(ISSUER)
+            .subject(subject)
+            .claim("sid", sid)
+            .issuedAt(now)
+            .expiresAt(now.plusSeconds(300))
+            .build();
+        index.register(session, new DefaultOidcUser(List.of(), idToken));
+        return session;
+    }
+
+    /** A logout token as Keycloak sends it; {@code customizer} then adds or overrides claims. */
+    private static String logoutToken(Consumer<JWTClaimsSet.Builder> customizer, RSAKey signingKey)
+            throws JOSEException {
+        Instant now = Instant.now();
+        JWTClaimsSet.Builder claims = new JWTClaimsSet.Builder()
+            .issuer(ISSUER)
+            .audience(CLIENT_ID)
+            .jwtID(UUID.randomUUID().toString())
+            .issueTime(Date.from(now))
+            .expirationTime(Date.from(now.plusSeconds(60)))
+            .claim("events", Map.of(EVENT, Map.of()));
+        customizer.accept(claims);
+        SignedJWT token = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256)
+            .keyID(signingKey.getKeyID())
+            .type(JOSEObjectType.JWT)
+            .build(), claims.build());
+        token.sign(new RSASSASigner(signingKey));
+        return token.serialize();
+    }
+}
@@ -0,0 +1,55 @@
+package com.fileupload.app.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.util.Base64;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class SignedLinkSignerTest {
+
+    private static final String SECRET = Base64.getEncoder().encodeToString(new byte[32]);
+    private static final String FILES = "/api/signed/files/";
+    private static final String REPORTS = "/api/signed/reports/";
+
+    private final SignedLinkSigner signer = new SignedLinkSigner();
+    private long expiresAt;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(signer, "secret", SECRET);
+        ReflectionTestUtils.setField(signer, "ttlSeconds", 300L);
+        signer.init();
+        expiresAt = Instant.now().getEpochSecond() + 60;
+    }
+
+    @Test
+    void verifiesItsOwnSignature() {
+        String signature = signer.sign(FILES, "id-1", "alice", expiresAt);
+        assertThat(signer.verify(FILES, "id-1", "alice", expiresAt, signature)).isTrue();
+        // Repeated use of the shared MAC must give the same answer
+        assertThat(signer.verify(FILES, "id-1", "alice", expiresAt, signature)).isTrue();
+    }
+
+    @Test
+    void rejectsSignatureForAnotherPathPrefix() {
+        String signature = signer.sign(REPORTS, "id-1", "alice", expiresAt);
+        assertThat(signer.verify(FILES, "id-1", "alice", expiresAt, signature)).isFalse();
+    }
+
+    @Test
+    void rejectsTamperedOrExpiredLinks() {
+        String signature = signer.sign(FILES, "id-1", "alice", expiresAt);
+        assertThat(signer.verify(FILES, "id-2", "alice", expiresAt, signature)).isFalse();
+        assertThat(signer.verify(FILES, "id-1", "bob", expiresAt, signature)).isFalse();
+        assertThat(signer.verify(FILES, "id-1", "alice", expiresAt + 1, signature)).isFalse();
+        assertThat(signer.verify(FILES, "id-1", "alice", expiresAt, "not base64!")).isFalse();
+
+        long expired = Instant.now().getEpochSecond() - 1;
+        String expiredSignature = signer.sign(FILES, "id-1", "alice", expired);
+        assertThat(signer.verify(FILES, "id-1", "alice", expired, expiredSignature)).isFalse();
+    }
+}
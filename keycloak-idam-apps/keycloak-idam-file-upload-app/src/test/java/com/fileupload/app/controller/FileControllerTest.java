@@ -0,0 +1,217 @@
+package com.fileupload.app.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMultipartHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.fileupload.app.config.SignedLinkSigner;
+import com.fileupload.app.dto.FileInfo;
+import com.fileupload.app.service.BandwidthThrottle;
+import com.fileupload.app.service.FileStorageService;
+import com.fileupload.app.service.HotFileCache;
+import com.fileupload.app.service.StorageQuotaService;
+import com.fileupload.app.service.TransferMetrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Tracer;
+
+/**
+ * The file endpoints over a real {@link FileStorageService}
+ * writing to a temporary directory.
+ */
+class FileControllerTest {
+
+    private static final String CONTENT = "0123456789abcdefghijklmnopqrstuvwxyz".repeat(100);
+
+    @TempDir
+    Path uploadDir;
+
+    private final Authentication alice = new TestingAuthenticationToken("alice", null, "ROLE_file_user");
+    private StorageQuotaService quota;
+    private BandwidthThrottle throttle;
+    private FileStorageService storage;
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        quota = new StorageQuotaService();
+        ReflectionTestUtils.setField(quota, "perUserLimit", 1L << 20);
+        ReflectionTestUtils.setField(quota, "globalLimit", 1L << 30);
+        throttle = new BandwidthThrottle();
+        ReflectionTestUtils.setField(throttle, "defaultBytesPerSecond", 1000L);
+        ReflectionTestUtils.setField(throttle, "roleBytesPerSecond", Map.of());
+        ReflectionTestUtils.setField(throttle, "maxQueueSeconds", 1L);
+        ReflectionTestUtils.setField(throttle, "sweepIntervalSeconds", 60L);
+        throttle.afterPropertiesSet();
+        storage = new FileStorageService(quota, throttle,
+            new HotFileCache(registry), new TransferMetrics(registry),
+            new StaticListableBeanFactory().getBeanProvider(Tracer.class));
+        ReflectionTestUtils.setField(storage, "uploadDir", uploadDir.toString());
+        ReflectionTestUtils.setField(storage, "batchParallelism", 2);
+        ReflectionTestUtils.setField(storage, "compressionEnabled", true);
+        ReflectionTestUtils.setField(storage, "compressionMinBytes", 1024L);
+        storage.init();
+        mvc = MockMvcBuilders.standaloneSetup(new FileController(storage, new SignedLinkSigner())).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        storage.shutdown();
+        throttle.destroy();
+    }
+
+    @Test
+    void servesWholeFileAndAdvertisesRanges() throws Exception {
+        FileInfo file = store("plain.bin", "application/octet-stream");
+
+        MockHttpServletResponse response = download(file, null, null);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader(HttpHeaders.ACCEPT_RANGES)).isEqualTo("bytes");
+        assertThat(response.getContentAsString()).isEqualTo(CONTENT);
+    }
+
+    @Test
+    void servesRangeOfUncompressedFile() throws Exception {
+        FileInfo file = store("plain.bin", "application/octet-stream");
+
+        MockHttpServletResponse response = download(file, "bytes=10-19", null);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 10-19/" + CONTENT.length());
+        assertThat(response.getContentLengthLong()).isEqualTo(10);
+        assertThat(response.getContentAsString()).isEqualTo(CONTENT.substring(10, 20));
+    }
+
+    @Test
+    void servesRangeOfCompressedFileDecoded() throws Exception {
+        FileInfo file = store("notes.txt", "text/plain");
+        assertThat(file.isCompressed()).isTrue();
+
+        MockHttpServletResponse response = download(file, "bytes=-5", "gzip");
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(response.getContentAsString()).isEqualTo(CONTENT.substring(CONTENT.length() - 5));
+    }
+
+    @Test
+    void coalescesSeveralRanges() throws Exception {
+        FileInfo file = store("plain.bin", "application/octet-stream");
+
+        MockHttpServletResponse response = download(file, "bytes=30-39, 5-9", null);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 5-39/" + CONTENT.length());
+        assertThat(response.getContentAsString()).isEqualTo(CONTENT.substring(5, 40));
+    }
+
+    @Test
+    void rejectsRangeBeyondEndOfFile() throws Exception {
+        FileInfo file = store("plain.bin", "application/octet-stream");
+
+        MockHttpServletResponse response = download(file, "bytes=" + CONTENT.length() + "-", null);
+
+        assertThat(response.getStatus()).isEqualTo(416);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */" + CONTENT.length());
+    }
+
+    @Test
+    void rejectsBatchOverQuotaBeforeStoringAnyOfIt() throws Exception {
+        ReflectionTestUtils.setField(quota, "perUserLimit", (long) CONTENT.length() * 2);
+
+        MockHttpServletResponse response = uploadBatch(3);
+
+        assertThat(response.getStatus()).isEqualTo(413);
+        assertThat(storage.getAllFiles("alice")).isEmpty();
+        assertThat(quota.getUsage("alice")).isZero();
+    }
+
+    @Test
+    void rejectsBatchWhileBandwidthIsExhausted() throws Exception {
+        ReflectionTestUtils.setField(throttle, "enabled", true);
+        // Charged at 1000 bytes/s, this leaves seconds of debt against a one-second queue
+        store("plain.bin", "application/octet-stream");
+
+        MockHttpServletResponse response = uploadBatch(2);
+
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getHeader(HttpHeaders.RETRY_AFTER)).isNotNull();
+        assertThat(storage.getAllFiles("alice")).hasSize(1);
+    }
+
+    @Test
+    void storesBatchWithinQuota() throws Exception {
+        MockHttpServletResponse response = uploadBatch(3);
+
+        assertThat(response.getStatus()).isEqualTo(201);
+        assertThat(storage.getAllFiles("alice")).hasSize(3);
+    }
+
+    @Test
+    void reportsFilesThatCouldNotBeDeleted() throws Exception {
+        FileInfo file = store("plain.bin", "application/octet-stream");
+        String missing = UUID.randomUUID().toString();
+
+        MockHttpServletResponse response = mvc.perform(delete("/api/files")
+                .principal(alice)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[\"" + file.getId() + "\", \"" + missing + "\"]"))
+            .andReturn().getResponse();
+
+        assertThat(response.getStatus()).isEqualTo(207);
+        assertThat(response.getContentAsString())
+            .contains("\"deleted\":[\"" + file.getId() + "\"]")
+            .contains("\"" + missing + "\":\"File not found\"");
+        assertThat(storage.getAllFiles("alice")).isEmpty();
+    }
+
+    private MockHttpServletResponse uploadBatch(int count) throws Exception {
+        MockMultipartHttpServletRequestBuilder request = multipart("/api/files/upload/batch");
+        for (int i = 0; i < count; i++) {
+            request.file(new MockMultipartFile("files", "part-" + i + ".bin", "application/octet-stream",
+                CONTENT.getBytes(StandardCharsets.UTF_8)));
+        }
+        return mvc.perform(request.principal(alice)).andReturn().getResponse();
+    }
+
+    private FileInfo store(String name, String contentType) {
+        return storage.storeFile(new MockMultipartFile("file", name, contentType,
+            CONTENT.getBytes(StandardCharsets.UTF_8)), "alice", alice.getAuthorities());
+    }
+
+    private MockHttpServletResponse download(FileInfo file, String range, String acceptEncoding) throws Exception {
+        MockHttpServletRequestBuilder request = get("/api/files/{id}/download", file.getId()).principal(alice);
+        if (range != null) {
+            request.header(HttpHeaders.RANGE, range);
+        }
+        if (acceptEncoding != null) {
+            request.header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        return mvc.perform(request).andReturn().getResponse();
+    }
+}
@@ -0,0 +1,34 @@
+package com.fileupload.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class ContentTypesTest {
+
+    @Test
+    void acceptsGzipWhenListedOrCoveredByWildcard() {
+        assertThat(ContentTypes.acceptsGzip("gzip")).isTrue();
+        assertThat(ContentTypes.acceptsGzip("deflate, GZIP;q=0.5")).isTrue();
+        assertThat(ContentTypes.acceptsGzip("x-gzip")).isTrue();
+        assertThat(ContentTypes.acceptsGzip("br, *")).isTrue();
+    }
+
+    @Test
+    void refusesGzipWithZeroWeight() {
+        assertThat(ContentTypes.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(ContentTypes.acceptsGzip("gzip; q=0.000")).isFalse();
+        // An explicit entry overrides the wildcard in either direction
+        assertThat(ContentTypes.acceptsGzip("*, gzip;q=0")).isFalse();
+        assertThat(ContentTypes.acceptsGzip("*;q=0, gzip")).isTrue();
+        assertThat(ContentTypes.acceptsGzip("*;q=0")).isFalse();
+    }
+
+    @Test
+    void refusesGzipWhenAbsentOrMalformed() {
+        assertThat(ContentTypes.acceptsGzip(null)).isFalse();
+        assertThat(ContentTypes.acceptsGzip("")).isFalse();
+        assertThat(ContentTypes.acceptsGzip("identity, br")).isFalse();
+        assertThat(ContentTypes.acceptsGzip("gzip;q=abc")).isFalse();
+    }
+}
@@ -0,0 +1,128 @@
+package com.fileupload.app.service;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import com.fileupload.app.dto.FileInfo;
+
+/**
+ * Retained heap of {@link FileCatalog} against the map of {@link FileInfo}
+ * objects it replaced, at 1M and 10M files by default.
+ *
+ * Not a unit test; run it on its own with enough heap for the larger map:
+ * {@code mvn test-compile} then
+ * {@code java -Xmx16g -cp target/classes:target/test-classes com.fileupload.app.service.FileCatalogFootprintBenchmark [entries...]}.
+ * Original file names are held outside both representations, since both keep
+ * them, so the figures compare only the per-file overhead.
+ */
+public class FileCatalogFootprintBenchmark {
+
+    private static final String[] OWNERS = new String[200];
+    private static final String[] CONTENT_TYPES = {
+        "application/pdf", "image/png", "image/jpeg", "text/plain", "text/csv",
+        "application/zip", "application/json", "application/octet-stream"
+    };
+
+    // Keeps the structure reachable until after it was measured
+    private static volatile long sink;
+
+    static {
+        for (int i = 0; i < OWNERS.length; i++) {
+            OWNERS[i] = "user-" + i;
+        }
+    }
+
+    public static void main(String[] args) {
+        long[] counts = args.length == 0 ? new long[] {1_000_000, 10_000_000} : parse(args);
+        // The first pass also retains one-off allocations (class init, JIT), so it is not reported
+        String[] warmup = originalFileNames(100_000);
+        retainedBytes(() -> fileInfoMap(warmup));
+        retainedBytes(() -> catalog(warmup));
+
+        System.out.printf("%12s %18s %18s %10s %14s%n", "entries", "map bytes/file", "catalog bytes/file",
+            "ratio", "catalog est.");
+        for (long count : counts) {
+            int entries = Math.toIntExact(count);
+            String[] names = originalFileNames(entries);
+
+            long mapBytes = retainedBytes(() -> fileInfoMap(names));
+            FileCatalog[] catalog = new FileCatalog[1];
+            long catalogBytes = retainedBytes(() -> catalog[0] = catalog(names));
+
+            System.out.printf("%,12d %,18d %,18d %9.1fx %,14d%n", entries, mapBytes / entries,
+                catalogBytes / entries, (double) mapBytes / catalogBytes,
+                catalog[0].estimatedFootprintBytes() / entries);
+        }
+    }
+
+    /** The representation before the catalog: seven strings and a LocalDateTime per file. */
+    private static Map<String, FileInfo> fileInfoMap(String[] names) {
+        Random random = new Random(1);
+        Map<String, FileInfo> map = new ConcurrentHashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (String name : names) {
+            String id = new UUID(random.nextLong(), random.nextLong()).toString();
+            map.put(id, FileInfo.builder()
+                .id(id)
+                .fileName(id + "_" + name)
+                .originalFileName(name)
+                .contentType(new String(CONTENT_TYPES[random.nextInt(CONTENT_TYPES.length)]))
+                .size(random.nextInt(50_000_000))
+                // Each upload request carries its own copy of the username
+                .uploadedBy(new String(OWNERS[random.nextInt(OWNERS.length)]))
+                .uploadedAt(now.minusSeconds(random.nextInt(86_400)))
+                .downloadUrl("/api/files/" + id + "/download")
+                .build());
+        }
+        return map;
+    }
+
+    private static FileCatalog catalog(String[] names) {
+        Random random = new Random(1);
+        FileCatalog catalog = new FileCatalog();
+        long now = System.currentTimeMillis();
+        for (String name : names) {
+            catalog.put(new UUID(random.nextLong(), random.nextLong()), name,
+                new String(CONTENT_TYPES[random.nextInt(CONTENT_TYPES.length)]), random.nextInt(50_000_000),
+                new String(OWNERS[random.nextInt(OWNERS.length)]), now - random.nextInt(86_400) * 1000L, false);
+        }
+        return catalog;
+    }
+
+    private static String[] originalFileNames(int entries) {
+        String[] names = new String[entries];
+        for (int i = 0; i < entries; i++) {
+            names[i] = "document-" + i + ".pdf";
+        }
+        return names;
+    }
+
+    /** Heap still in use after building the structure, measured while it is reachable. */
+    private static long retainedBytes(Supplier<Object> builder) {
+        long before = usedHeap();
+        Object structure = builder.get();
+        long after = usedHeap();
+        sink += System.identityHashCode(structure);
+        return after - before;
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static long[] parse(String[] args) {
+        long[] counts = new long[args.length];
+        for (int i = 0; i < args.length; i++) {
+            counts[i] = Long.parseLong(args[i].replace("_", ""));
+        }
+        return counts;
+    }
+}
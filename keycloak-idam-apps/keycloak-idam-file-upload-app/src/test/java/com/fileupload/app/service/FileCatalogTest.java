@@ -0,0 +1,189 @@
+package com.fileupload.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import com.fileupload.app.dto.FileInfo;
+
+class FileCatalogTest {
+
+    // Index size of an empty catalog (twice its initial capacity of 1024)
+    private static final int INITIAL_INDEX_SIZE = 2048;
+
+    private final Random random = new Random(26);
+
+    @Test
+    void putGetAndRemove() {
+        FileCatalog catalog = new FileCatalog();
+        UUID id = UUID.randomUUID();
+        catalog.put(id, "report.pdf", "application/pdf", 1234, "alice", 1_700_000_000_000L, true);
+
+        FileInfo info = catalog.get(id.toString());
+        assertThat(info.getId()).isEqualTo(id.toString());
+        assertThat(info.getFileName()).isEqualTo(id + "_report.pdf");
+        assertThat(info.getOriginalFileName()).isEqualTo("report.pdf");
+        assertThat(info.getContentType()).isEqualTo("application/pdf");
+        assertThat(info.getSize()).isEqualTo(1234);
+        assertThat(info.getUploadedBy()).isEqualTo("alice");
+        assertThat(info.getDownloadUrl()).isEqualTo("/api/files/" + id + "/download");
+        assertThat(info.isCompressed()).isTrue();
+
+        assertThat(catalog.remove(id.toString())).isTrue();
+        assertThat(catalog.get(id.toString())).isNull();
+        assertThat(catalog.remove(id.toString())).isFalse();
+        assertThat(catalog.size()).isZero();
+    }
+
+    @Test
+    void putOverwritesExistingEntry() {
+        FileCatalog catalog = new FileCatalog();
+        UUID id = UUID.randomUUID();
+        catalog.put(id, "a.txt", "text/plain", 1, "alice", 1L, false);
+        catalog.put(id, "b.txt", "text/csv", 2, "bob", 2L, false);
+
+        assertThat(catalog.size()).isEqualTo(1);
+        assertThat(catalog.get(id.toString()).getOriginalFileName()).isEqualTo("b.txt");
+        assertThat(catalog.findByOwner("alice")).isEmpty();
+        assertThat(catalog.findByOwner("bob")).hasSize(1);
+    }
+
+    @Test
+    void findByOwnerFollowsRemovalsAndOwnerChanges() {
+        FileCatalog catalog = new FileCatalog();
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            UUID id = UUID.randomUUID();
+            ids.add(id);
+            catalog.put(id, "f" + i, "text/plain", i, "alice", i, false);
+        }
+        catalog.put(UUID.randomUUID(), "other", "text/plain", 1, "bob", 0L, false);
+
+        // Head, middle and tail of alice's chain
+        catalog.remove(ids.get(4).toString());
+        catalog.remove(ids.get(2).toString());
+        catalog.remove(ids.get(0).toString());
+        catalog.put(ids.get(1), "f1", "text/plain", 1, "bob", 1L, false);
+
+        assertThat(catalog.findByOwner("alice")).extracting(FileInfo::getId)
+            .containsExactly(ids.get(3).toString());
+        assertThat(catalog.findByOwner("bob")).hasSize(2);
+        assertThat(catalog.findByOwner("carol")).isEmpty();
+
+        // Freed slots are reused by another owner without touching alice's chain
+        catalog.put(UUID.randomUUID(), "new", "text/plain", 1, "carol", 9L, false);
+        assertThat(catalog.findByOwner("alice")).hasSize(1);
+        assertThat(catalog.findByOwner("carol")).hasSize(1);
+    }
+
+    @Test
+    void malformedIdsAreNotFound() {
+        FileCatalog catalog = new FileCatalog();
+        assertThat(catalog.get("not-a-uuid")).isNull();
+        assertThat(catalog.get(null)).isNull();
+        assertThat(catalog.remove("../etc/passwd")).isFalse();
+    }
+
+    @Test
+    void removingFromCollisionChainKeepsLaterEntriesReachable() {
+        FileCatalog catalog = new FileCatalog();
+        List<UUID> chain = idsWithHome(100, 4);
+        // Homed one bucket later, so it lands behind the chain and must shift back
+        UUID displaced = idsWithHome(101, 1).get(0);
+        chain.forEach(id -> add(catalog, id));
+        add(catalog, displaced);
+
+        for (UUID removed : List.of(chain.get(1), chain.get(0), chain.get(3))) {
+            assertThat(catalog.remove(removed.toString())).isTrue();
+            assertThat(catalog.get(removed.toString())).isNull();
+        }
+        assertThat(catalog.get(chain.get(2).toString())).isNotNull();
+        assertThat(catalog.get(displaced.toString())).isNotNull();
+        assertThat(catalog.size()).isEqualTo(2);
+    }
+
+    @Test
+    void probeChainWrapsAroundEndOfIndex() {
+        FileCatalog catalog = new FileCatalog();
+        List<UUID> wrapping = idsWithHome(INITIAL_INDEX_SIZE - 1, 4);
+        // Homed at bucket 0, which the wrapped chain already occupies
+        UUID first = idsWithHome(0, 1).get(0);
+        wrapping.forEach(id -> add(catalog, id));
+        add(catalog, first);
+
+        wrapping.forEach(id -> assertThat(catalog.get(id.toString())).isNotNull());
+        assertThat(catalog.get(first.toString())).isNotNull();
+
+        // Removing the entry at the last bucket must pull the wrapped ones back across the end
+        assertThat(catalog.remove(wrapping.get(0).toString())).isTrue();
+        wrapping.subList(1, 4).forEach(id -> assertThat(catalog.get(id.toString())).isNotNull());
+        assertThat(catalog.get(first.toString())).isNotNull();
+
+        assertThat(catalog.remove(wrapping.get(2).toString())).isTrue();
+        assertThat(catalog.get(wrapping.get(1).toString())).isNotNull();
+        assertThat(catalog.get(wrapping.get(3).toString())).isNotNull();
+        assertThat(catalog.get(first.toString())).isNotNull();
+        assertThat(catalog.size()).isEqualTo(3);
+    }
+
+    @Test
+    void matchesHashMapAcrossGrowthAndSlotReuse() {
+        FileCatalog catalog = new FileCatalog();
+        Map<UUID, Long> expected = new HashMap<>();
+        List<UUID> live = new ArrayList<>();
+
+        for (int i = 0; i < 50_000; i++) {
+            if (!live.isEmpty() && random.nextInt(3) == 0) {
+                UUID id = live.remove(random.nextInt(live.size()));
+                expected.remove(id);
+                assertThat(catalog.remove(id.toString())).isTrue();
+            } else {
+                UUID id = new UUID(random.nextLong(), random.nextLong());
+                long size = random.nextInt(1_000_000);
+                catalog.put(id, "f" + i, "text/plain", size, "owner" + (i % 7), i, false);
+                expected.put(id, size);
+                live.add(id);
+            }
+        }
+
+        assertThat(catalog.size()).isEqualTo(expected.size());
+        expected.forEach((id, size) -> assertThat(catalog.get(id.toString()).getSize()).isEqualTo(size));
+        int owned = 0;
+        for (int owner = 0; owner < 7; owner++) {
+            List<FileInfo> files = catalog.findByOwner("owner" + owner);
+            String name = "owner" + owner;
+            assertThat(files).allSatisfy(file -> assertThat(file.getUploadedBy()).isEqualTo(name));
+            assertThat(files).allSatisfy(file -> assertThat(expected).containsKey(UUID.fromString(file.getId())));
+            owned += files.size();
+        }
+        assertThat(owned).isEqualTo(expected.size());
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(catalog.get(new UUID(random.nextLong(), random.nextLong()).toString())).isNull();
+        }
+    }
+
+    private static void add(FileCatalog catalog, UUID id) {
+        catalog.put(id, "file.bin", "application/octet-stream", 1, "owner", 0L, false);
+    }
+
+    /** Random ids whose home bucket in an initial-size index is {@code bucket}. */
+    private List<UUID> idsWithHome(int bucket, int count) {
+        List<UUID> ids = new ArrayList<>();
+        while (ids.size() < count) {
+            UUID id = new UUID(random.nextLong(), random.nextLong());
+            int home = FileCatalog.hash(id.getMostSignificantBits(), id.getLeastSignificantBits())
+                & (INITIAL_INDEX_SIZE - 1);
+            if (home == bucket) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+}
@@ -37,6 +37,17 @@ export const fileApi = {
     responseType: 'blob',
   }),
   deleteFile: (fileId) => api.delete(`/files/${fileId}`),
+  uploadFiles: (formData) => api.post('/files/upload/batch', formData, {
+    headers: {
+      'Content-Type': 'multipart/form-data',
+    },
+  }),
+  deleteFiles: (fileIds) => api.delete('/files', { data: fileIds }),
+  downloadArchive: (fileIds) => api.get('/files/archive', {
+    params: { ids: fileIds.join(',') },
+    responseType: 'blob',
+  }),
+  createDownloadLink: (fileId) => api.post(`/files/${fileId}/link`),
 };
 
 export default api;
\ No newline at end of file
@@ -1,11 +1,20 @@
 package com.landing.app;
 
 
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import com.landing.app.config.ServiceTokenManager;
+
+import io.micrometer.observation.ObservationRegistry;
+
 @SpringBootApplication
 public class LandingApplication {
     
@@ -17,8 +26,30 @@ public class LandingApplication {
         System.out.println("=================================================");
     }
     
+    /**
+     * Client for the report and file backends. The read timeout bounds each call
+     * as a whole, and the observation registry carries the trace context along.
+     * Calls that relay no user token get the backend's service token instead.
+     */
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(
+            @Value("${app.backend-client.connect-timeout-millis:500}") long connectTimeoutMillis,
+            @Value("${app.backend-client.read-timeout-millis:2000}") long readTimeoutMillis,
+            @Value("${app.dashboard.report-api-url}") String reportApiUrl,
+            @Value("${app.dashboard.file-api-url}") String fileApiUrl,
+            @Value("${app.service-tokens.report-audience:report-generation-app}") String reportAudience,
+            @Value("${app.service-tokens.file-audience:file-upload-app}") String fileAudience,
+            ServiceTokenManager serviceTokenManager,
+            ObservationRegistry observationRegistry) {
+        HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+            .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(readTimeoutMillis));
+        RestTemplate restTemplate = new RestTemplate(requestFactory);
+        restTemplate.setObservationRegistry(observationRegistry);
+        restTemplate.getInterceptors().add(serviceTokenManager.interceptor(reportApiUrl, reportAudience));
+        restTemplate.getInterceptors().add(serviceTokenManager.interceptor(fileApiUrl, fileAudience));
+        return restTemplate;
     }
 }
\ No newline at end of file
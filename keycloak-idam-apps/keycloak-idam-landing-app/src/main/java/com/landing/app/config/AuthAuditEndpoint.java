@@ -0,0 +1,44 @@
+package com.landing.app.config;
+
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.OptionalParameter;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code /actuator/authaudit}: shows the audit pipeline's state and switches
+ * it, its verbose details and per-event sampling at runtime.
+ */
+@Component
+@Endpoint(id = "authaudit")
+public class AuthAuditEndpoint {
+
+    private final AuthAuditLog authAuditLog;
+
+    public AuthAuditEndpoint(AuthAuditLog authAuditLog) {
+        this.authAuditLog = authAuditLog;
+    }
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        return authAuditLog.status();
+    }
+
+    @WriteOperation
+    public Map<String, Object> configure(@OptionalParameter Boolean enabled, @OptionalParameter Boolean verbose,
+                                         @OptionalParameter String eventType, @OptionalParameter Double sampleRate) {
+        if (enabled != null) {
+            authAuditLog.setEnabled(enabled);
+        }
+        if (verbose != null) {
+            authAuditLog.setVerbose(verbose);
+        }
+        if (eventType != null && sampleRate != null) {
+            authAuditLog.setSampleRate(AuthAuditLog.EventType.valueOf(eventType), sampleRate);
+        }
+        return authAuditLog.status();
+    }
+}
@@ -0,0 +1,178 @@
+package com.landing.app.config;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.core.oidc.IdTokenClaimNames;
+import org.springframework.security.oauth2.core.oidc.OidcIdToken;
+import org.springframework.security.oauth2.core.oidc.OidcUserInfo;
+import org.springframework.security.oauth2.core.oidc.StandardClaimNames;
+import org.springframework.security.oauth2.core.oidc.user.OidcUser;
+
+/**
+ * Session principal holding only the identity claims the apps read, plus the
+ * user's authorities as a bit mask over {@link IndexedAuthority}.
+ *
+ * Unlike {@code DefaultOidcUser} it does not retain the userinfo response or
+ * the full claim set. The raw ID token is kept, so {@link #getIdToken()}
+ * still works for RP-initiated logout ({@code id_token_hint}), but the token
+ * it returns only carries the retained claims. {@link #getUserInfo()} returns
+ * {@code null}.
+ */
+public final class CompactOidcUser implements OidcUser, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String subject;
+    private final String preferredUsername;
+    private final String email;
+    private final String fullName;
+    private final String givenName;
+    private final String familyName;
+    private final String sessionId;
+    private final String issuer;
+    private final String idTokenValue;
+    private final Instant issuedAt;
+    private final Instant expiresAt;
+
+    private transient long authorityMask;
+    private transient Collection<GrantedAuthority> authorities;
+    private transient Map<String, Object> claims;
+    private transient OidcIdToken idToken;
+
+    private CompactOidcUser(OidcIdToken idToken, Collection<GrantedAuthority> authorities) {
+        Map<String, Object> claims = idToken.getClaims();
+        this.subject = string(claims, IdTokenClaimNames.SUB);
+        this.preferredUsername = string(claims, StandardClaimNames.PREFERRED_USERNAME);
+        this.email = string(claims, StandardClaimNames.EMAIL);
+        this.fullName = string(claims, StandardClaimNames.NAME);
+        this.givenName = string(claims, StandardClaimNames.GIVEN_NAME);
+        this.familyName = string(claims, StandardClaimNames.FAMILY_NAME);
+        this.sessionId = string(claims, "sid");
+        this.issuer = string(claims, IdTokenClaimNames.ISS);
+        this.idTokenValue = idToken.getTokenValue();
+        this.issuedAt = idToken.getIssuedAt();
+        this.expiresAt = idToken.getExpiresAt();
+        initAuthorities(authorities);
+    }
+
+    public static CompactOidcUser from(OidcIdToken idToken, Collection<GrantedAuthority> authorities) {
+        return new CompactOidcUser(idToken, authorities);
+    }
+
+    private void initAuthorities(Collection<GrantedAuthority> authorities) {
+        if (IndexedAuthority.isFullyIndexed(authorities)) {
+            this.authorityMask = IndexedAuthority.mask(authorities);
+            this.authorities = IndexedAuthority.forMask(authorityMask);
+        } else {
+            this.authorityMask = 0;
+            this.authorities = Collections.unmodifiableList(new ArrayList<>(authorities));
+        }
+    }
+
+    /**
+     * Bit mask of the user's authorities, or {@code 0} when the user holds an
+     * authority outside the indexed range.
+     */
+    public long getAuthorityMask() {
+        return authorityMask;
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public Map<String, Object> getClaims() {
+        Map<String, Object> result = claims;
+        if (result == null) {
+            result = new LinkedHashMap<>();
+            put(result, IdTokenClaimNames.SUB, subject);
+            put(result, StandardClaimNames.PREFERRED_USERNAME, preferredUsername);
+            put(result, StandardClaimNames.EMAIL, email);
+            put(result, StandardClaimNames.NAME, fullName);
+            put(result, StandardClaimNames.GIVEN_NAME, givenName);
+            put(result, StandardClaimNames.FAMILY_NAME, familyName);
+            put(result, "sid", sessionId);
+            put(result, IdTokenClaimNames.ISS, issuer);
+            result = Collections.unmodifiableMap(result);
+            claims = result;
+        }
+        return result;
+    }
+
+    @Override
+    public Map<String, Object> getAttributes() {
+        return getClaims();
+    }
+
+    @Override
+    public OidcUserInfo getUserInfo() {
+        return null;
+    }
+
+    @Override
+    public OidcIdToken getIdToken() {
+        OidcIdToken result = idToken;
+        // Sessions stored before the token value was kept have none
+        if (result == null && idTokenValue != null) {
+            result = new OidcIdToken(idTokenValue, issuedAt, expiresAt, getClaims());
+            idToken = result;
+        }
+        return result;
+    }
+
+    @Override
+    public String getName() {
+        return subject;
+    }
+
+    @Override
+    public String toString() {
+        return "CompactOidcUser[" + preferredUsername + ", " + authorities + "]";
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeInt(authorities.size());
+        for (GrantedAuthority authority : authorities) {
+            out.writeUTF(authority.getAuthority());
+        }
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        int count = in.readInt();
+        List<GrantedAuthority> restored = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            restored.add(IndexedAuthority.of(in.readUTF()));
+        }
+        initAuthorities(restored);
+    }
+
+    private static String string(Map<String, Object> claims, String name) {
+        Object value = claims.get(name);
+        return value == null ? null : value.toString();
+    }
+
+    private static void put(Map<String, Object> claims, String name, String value) {
+        if (value != null) {
+            claims.put(name, value);
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.landing.app.config;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keycloak signing keys, fetched eagerly during startup and kept fresh in the
+ * background.
+ *
+ * Callers always read the current key set without blocking. A token with an
+ * unknown {@code kid} triggers at most one refresh at a time (others wait on
+ * the same fetch, bounded by the refresh timeout, then fall back to the keys
+ * they already have), and such refreshes are rate limited. When Keycloak is
+ * unreachable the last good set, or the configured fallback file, keeps being
+ * served.
+ */
+@Slf4j
+@Component
+public class JwksKeySource implements JWKSource<SecurityContext>, InitializingBean, DisposableBean {
+
+    @Value("${spring.security.oauth2.resourceserver.jwt.jwk-set-uri}")
+    private String jwkSetUri;
+
+    @Value("${app.security.jwks.refresh-interval-seconds:300}")
+    private long refreshIntervalSeconds;
+
+    @Value("${app.security.jwks.min-refresh-interval-seconds:10}")
+    private long minRefreshIntervalSeconds;
+
+    @Value("${app.security.jwks.refresh-timeout-millis:2000}")
+    private long refreshTimeoutMillis;
+
+    @Value("${app.security.jwks.fallback-file:}")
+    private String fallbackFile;
+
+    private final AtomicReference<JWKSet> current = new AtomicReference<>();
+    private final AtomicReference<CompletableFuture<JWKSet>> inFlight = new AtomicReference<>();
+    private volatile long lastRefreshNanos;
+    private HttpClient httpClient;
+    private ScheduledExecutorService scheduler;
+
+    @Override
+    public void afterPropertiesSet() {
+        httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofMillis(refreshTimeoutMillis))
+            .build();
+
+        try {
+            current.set(fetch());
+            log.info("Preloaded {} signing keys from {}", current.get().getKeys().size(), jwkSetUri);
+        } catch (Exception ex) {
+            log.warn("Could not preload signing keys from {}: {}", jwkSetUri, ex.getMessage());
+            loadFallback();
+        }
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "jwks-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::refreshInBackground,
+            refreshIntervalSeconds, refreshIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    @Override
+    public List<JWK> get(JWKSelector selector, SecurityContext context) throws KeySourceException {
+        JWKSet keys = current.get();
+        if (keys == null) {
+            keys = refresh(true);
+            if (keys == null) {
+                throw new KeySourceException("No signing keys available from " + jwkSetUri);
+            }
+        }
+
+        List<JWK> matches = selector.select(keys);
+        if (matches.isEmpty() && hasUnknownKeyId(selector, keys)) {
+            JWKSet refreshed = refresh(false);
+            if (refreshed != null && refreshed != keys) {
+                matches = selector.select(refreshed);
+            }
+        }
+        return matches;
+    }
+
+    private void refreshInBackground() {
+        try {
+            refresh(true);
+        } catch (Exception ex) {
+            log.warn("Background signing key refresh failed: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Single-flight refresh. Returns the newest key set available once the
+     * shared fetch completes or the timeout elapses, whichever is first.
+     */
+    private JWKSet refresh(boolean force) {
+        long now = System.nanoTime();
+        if (!force && now - lastRefreshNanos < TimeUnit.SECONDS.toNanos(minRefreshIntervalSeconds)) {
+            return current.get();
+        }
+
+        CompletableFuture<JWKSet> future = new CompletableFuture<>();
+        CompletableFuture<JWKSet> running = inFlight.compareAndExchange(null, future);
+        if (running == null) {
+            lastRefreshNanos = now;
+            try {
+                JWKSet fetched = fetch();
+                current.set(fetched);
+                future.complete(fetched);
+                persistFallback(fetched);
+            } catch (Exception ex) {
+                log.warn("Signing key refresh from {} failed, keeping previous keys: {}", jwkSetUri, ex.getMessage());
+                if (current.get() == null) {
+                    loadFallback();
+                }
+                future.complete(current.get());
+            } finally {
+                inFlight.set(null);
+            }
+            return future.join();
+        }
+
+        try {
+            return running.get(refreshTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            return current.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return current.get();
+        } catch (Exception ex) {
+            return current.get();
+        }
+    }
+
+    private JWKSet fetch() throws IOException, InterruptedException, ParseException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(jwkSetUri))
+            .timeout(Duration.ofMillis(refreshTimeoutMillis))
+            .header("Accept", "application/json")
+            .GET()
+            .build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IOException("Unexpected status " + response.statusCode());
+        }
+        return JWKSet.parse(response.body());
+    }
+
+    private void loadFallback() {
+        if (!StringUtils.hasText(fallbackFile)) {
+            return;
+        }
+        Path path = Paths.get(fallbackFile);
+        if (!Files.isReadable(path)) {
+            log.warn("Fallback JWKS file {} is not readable", path);
+            return;
+        }
+        try {
+            current.set(JWKSet.parse(Files.readString(path, StandardCharsets.UTF_8)));
+            log.info("Loaded {} signing keys from fallback file {}", current.get().getKeys().size(), path);
+        } catch (IOException | ParseException ex) {
+            log.warn("Could not read fallback JWKS file {}: {}", path, ex.getMessage());
+        }
+    }
+
+    private void persistFallback(JWKSet keys) {
+        if (!StringUtils.hasText(fallbackFile)) {
+            return;
+        }
+        try {
+            Path path = Paths.get(fallbackFile).toAbsolutePath();
+            Files.createDirectories(path.getParent());
+            Path temp = Files.createTempFile(path.getParent(), "jwks", ".tmp");
+            Files.writeString(temp, keys.toString(true), StandardCharsets.UTF_8);
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            log.debug("Could not update fallback JWKS file {}: {}", fallbackFile, ex.getMessage());
+        }
+    }
+
+    private static boolean hasUnknownKeyId(JWKSelector selector, JWKSet keys) {
+        Set<String> keyIds = selector.getMatcher().getKeyIDs();
+        if (keyIds == null || keyIds.isEmpty()) {
+            return false;
+        }
+        for (String keyId : keyIds) {
+            if (keyId != null && keys.getKeyByKeyId(keyId) != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,154 @@
+package com.landing.app.config;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded cache of already validated bearer tokens and the authorities derived
+ * from them. Entries are keyed by a SHA-256 digest of the raw token and never
+ * outlive the token's {@code exp}, so a repeat request costs one hash and one
+ * map lookup instead of a signature verification.
+ */
+@Component
+public class JwtValidationCache {
+
+    @Value("${app.security.jwt-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.security.jwt-cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${app.security.jwt-cache.max-ttl-seconds:300}")
+    private long maxTtlSeconds;
+
+    private final Map<TokenKey, Entry> entries = new ConcurrentHashMap<>();
+
+    public JwtDecoder decoder(JwtDecoder delegate) {
+        return token -> {
+            if (!enabled) {
+                return delegate.decode(token);
+            }
+            TokenKey key = TokenKey.of(token);
+            long now = System.currentTimeMillis();
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                if (entry.expiresAtMillis > now) {
+                    return entry.jwt;
+                }
+                entries.remove(key, entry);
+            }
+
+            Jwt jwt = delegate.decode(token);
+            store(key, new Entry(jwt, expiry(jwt, now)), now);
+            return jwt;
+        };
+    }
+
+    public Converter<Jwt, Collection<GrantedAuthority>> authorities(
+            Converter<Jwt, Collection<GrantedAuthority>> delegate) {
+        return jwt -> {
+            if (!enabled) {
+                return delegate.convert(jwt);
+            }
+            Entry entry = entries.get(TokenKey.of(jwt.getTokenValue()));
+            if (entry == null || entry.jwt != jwt) {
+                return delegate.convert(jwt);
+            }
+            Collection<GrantedAuthority> authorities = entry.authorities;
+            if (authorities == null) {
+                authorities = delegate.convert(jwt);
+                entry.authorities = authorities;
+            }
+            return authorities;
+        };
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    private long expiry(Jwt jwt, long now) {
+        long ttlLimit = now + maxTtlSeconds * 1000;
+        Instant expiresAt = jwt.getExpiresAt();
+        return expiresAt == null ? ttlLimit : Math.min(ttlLimit, expiresAt.toEpochMilli());
+    }
+
+    private void store(TokenKey key, Entry entry, long now) {
+        if (entries.size() >= maxEntries) {
+            entries.values().removeIf(existing -> existing.expiresAtMillis <= now);
+            if (entries.size() >= maxEntries) {
+                // Still full: drop an arbitrary tenth rather than tracking recency on every hit
+                Iterator<TokenKey> keys = entries.keySet().iterator();
+                for (int i = Math.max(1, maxEntries / 10); i > 0 && keys.hasNext(); i--) {
+                    keys.next();
+                    keys.remove();
+                }
+            }
+        }
+        entries.put(key, entry);
+    }
+
+    private static final class Entry {
+
+        final Jwt jwt;
+        final long expiresAtMillis;
+        volatile Collection<GrantedAuthority> authorities;
+
+        Entry(Jwt jwt, long expiresAtMillis) {
+            this.jwt = jwt;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+
+    private static final class TokenKey {
+
+        private final long high;
+        private final long low;
+
+        private TokenKey(long high, long low) {
+            this.high = high;
+            this.low = low;
+        }
+
+        static TokenKey of(String token) {
+            try {
+                byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+                ByteBuffer buffer = ByteBuffer.wrap(digest);
+                return new TokenKey(buffer.getLong(), buffer.getLong());
+            } catch (NoSuchAlgorithmException ex) {
+                throw new IllegalStateException("SHA-256 not available", ex);
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof TokenKey)) {
+                return false;
+            }
+            TokenKey other = (TokenKey) o;
+            return high == other.high && low == other.low;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(high * 31 + low);
+        }
+    }
+}
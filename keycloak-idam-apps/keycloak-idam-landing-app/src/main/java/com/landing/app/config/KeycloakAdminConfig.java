@@ -0,0 +1,47 @@
+package com.landing.app.config;
+
+import org.keycloak.admin.client.Keycloak;
+import org.keycloak.admin.client.KeycloakBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.landing.app.observability.TraceContextClientFilter;
+
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.propagation.Propagator;
+import jakarta.ws.rs.client.Client;
+
+@Configuration
+public class KeycloakAdminConfig {
+
+    /**
+     * One admin client for the whole app. It keeps a single RESTEasy client,
+     * whose pool of 10 connections all admin calls share, and caches the admin
+     * token until it nears expiry instead of logging in again per call.
+     * Requests carry the current trace context when tracing is available.
+     */
+    @Bean(destroyMethod = "close")
+    public Keycloak keycloakAdmin(
+            @Value("${keycloak.auth-server-url}") String serverUrl,
+            @Value("${keycloak.admin.username}") String adminUsername,
+            @Value("${keycloak.admin.password}") String adminPassword,
+            @Value("${keycloak.admin.client-id}") String adminClientId,
+            ObjectProvider<Tracer> tracer,
+            ObjectProvider<Propagator> propagator) {
+        Client client = Keycloak.getClientProvider().newRestEasyClient(null, null, false);
+        Propagator available = propagator.getIfAvailable();
+        if (available != null) {
+            client.register(new TraceContextClientFilter(tracer.getIfAvailable(() -> Tracer.NOOP), available));
+        }
+        return KeycloakBuilder.builder()
+            .serverUrl(serverUrl)
+            .realm("master")
+            .username(adminUsername)
+            .password(adminPassword)
+            .clientId(adminClientId)
+            .resteasyClient(client)
+            .build();
+    }
+}
@@ -0,0 +1,186 @@
+package com.landing.app.config;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.security.oauth2.core.oidc.user.OidcUser;
+import org.springframework.stereotype.Component;
+
+import jakarta.servlet.http.HttpSession;
+import jakarta.servlet.http.HttpSessionEvent;
+import jakarta.servlet.http.HttpSessionIdListener;
+import jakarta.servlet.http.HttpSessionListener;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@link OidcSessionIndex} for sessions held in this JVM, with
+ * {@code app.session.store=memory}: the index is a few maps, and a
+ * back-channel logout ends the matching sessions with a couple of lookups.
+ *
+ * Entries leave the index when their session is destroyed or changes id, and a
+ * background sweep drops whatever was missed.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.session.store", havingValue = "memory", matchIfMissing = true)
+public class LocalOidcSessionIndex
+        implements OidcSessionIndex, HttpSessionListener, HttpSessionIdListener, InitializingBean, DisposableBean {
+
+    @Value("${app.security.back-channel-logout.entry-ttl-seconds:36000}")
+    private long entryTtlSeconds;
+
+    @Value("${app.security.back-channel-logout.sweep-interval-seconds:300}")
+    private long sweepIntervalSeconds;
+
+    private final Map<String, Entry> bySessionId = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> bySid = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> bySubject = new ConcurrentHashMap<>();
+    private ScheduledExecutorService sweeper;
+
+    @Override
+    public void afterPropertiesSet() {
+        sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "oidc-session-sweep");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(this::sweep, sweepIntervalSeconds, sweepIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        sweeper.shutdownNow();
+    }
+
+    @Override
+    public void register(HttpSession session, OidcUser user) {
+        Entry entry = new Entry(session, user.getClaimAsString("sid"), user.getSubject(),
+            System.currentTimeMillis() + entryTtlSeconds * 1000);
+        Entry previous = bySessionId.put(session.getId(), entry);
+        if (previous != null) {
+            unlink(session.getId(), previous);
+        }
+        link(bySid, entry.sid, session.getId());
+        link(bySubject, entry.subject, session.getId());
+    }
+
+    @Override
+    public int logout(String sid, String subject) {
+        Set<String> sessionIds = sid != null ? bySid.get(sid) : bySubject.get(subject);
+        if (sessionIds == null) {
+            return 0;
+        }
+        int ended = 0;
+        for (String sessionId : sessionIds.toArray(new String[0])) {
+            Entry entry = remove(sessionId);
+            if (entry != null) {
+                end(entry);
+                ended++;
+            }
+        }
+        return ended;
+    }
+
+    public int size() {
+        return bySessionId.size();
+    }
+
+    @Override
+    public void sessionDestroyed(HttpSessionEvent event) {
+        remove(event.getSession().getId());
+    }
+
+    @Override
+    public void sessionIdChanged(HttpSessionEvent event, String oldSessionId) {
+        Entry entry = remove(oldSessionId);
+        if (entry != null) {
+            bySessionId.put(event.getSession().getId(), entry);
+            link(bySid, entry.sid, event.getSession().getId());
+            link(bySubject, entry.subject, event.getSession().getId());
+        }
+    }
+
+    private static void end(Entry entry) {
+        try {
+            entry.session.invalidate();
+        } catch (IllegalStateException ex) {
+            // already invalidated
+        }
+    }
+
+    private void sweep() {
+        long now = System.currentTimeMillis();
+        int removed = 0;
+        for (Map.Entry<String, Entry> mapping : bySessionId.entrySet()) {
+            if (mapping.getValue().isStale(now) && remove(mapping.getKey()) != null) {
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            log.debug("Dropped {} stale session index entries, {} remain", removed, bySessionId.size());
+        }
+    }
+
+    private Entry remove(String sessionId) {
+        Entry entry = bySessionId.remove(sessionId);
+        if (entry != null) {
+            unlink(sessionId, entry);
+        }
+        return entry;
+    }
+
+    private void unlink(String sessionId, Entry entry) {
+        unlink(bySid, entry.sid, sessionId);
+        unlink(bySubject, entry.subject, sessionId);
+    }
+
+    private static void link(Map<String, Set<String>> index, String key, String sessionId) {
+        if (key != null) {
+            index.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(sessionId);
+        }
+    }
+
+    private static void unlink(Map<String, Set<String>> index, String key, String sessionId) {
+        if (key != null) {
+            index.computeIfPresent(key, (k, sessionIds) -> {
+                sessionIds.remove(sessionId);
+                return sessionIds.isEmpty() ? null : sessionIds;
+            });
+        }
+    }
+
+    private static final class Entry {
+
+        final HttpSession session;
+        final String sid;
+        final String subject;
+        final long expiresAtMillis;
+
+        Entry(HttpSession session, String sid, String subject, long expiresAtMillis) {
+            this.session = session;
+            this.sid = sid;
+            this.subject = subject;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+
+        boolean isStale(long now) {
+            if (now > expiresAtMillis) {
+                return true;
+            }
+            try {
+                return session.getMaxInactiveInterval() > 0
+                    && now - session.getLastAccessedTime() > session.getMaxInactiveInterval() * 1000L;
+            } catch (IllegalStateException ex) {
+                return true;
+            }
+        }
+    }
+}
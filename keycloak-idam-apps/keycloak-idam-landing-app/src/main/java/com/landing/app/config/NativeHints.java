@@ -0,0 +1,114 @@
+package com.landing.app.config;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+
+import org.keycloak.admin.client.resource.RealmResource;
+import org.keycloak.admin.client.resource.RealmsResource;
+import org.keycloak.admin.client.resource.RoleMappingResource;
+import org.keycloak.admin.client.resource.RoleResource;
+import org.keycloak.admin.client.resource.RoleScopeResource;
+import org.keycloak.admin.client.resource.RolesResource;
+import org.keycloak.admin.client.resource.UserResource;
+import org.keycloak.admin.client.resource.UsersResource;
+import org.keycloak.admin.client.token.TokenService;
+import org.keycloak.representations.AccessTokenResponse;
+import org.keycloak.representations.idm.CredentialRepresentation;
+import org.keycloak.representations.idm.RoleRepresentation;
+import org.keycloak.representations.idm.UserRepresentation;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import com.landing.app.dto.DashboardResponse;
+import com.landing.app.dto.DashboardSection;
+import com.landing.app.dto.UserCreateRequest;
+import com.landing.app.dto.UserInfo;
+import com.landing.app.dto.UserUpdateRequest;
+
+/**
+ * Native-image hints that Spring's AOT processing cannot infer: DTOs bound
+ * through {@code ResponseEntity<?>} and maps, and the Keycloak admin client,
+ * whose RESTEasy proxies, JAX-RS providers and JSON representations are all
+ * created reflectively.
+ */
+@Configuration(proxyBeanMethods = false)
+@ImportRuntimeHints(NativeHints.Registrar.class)
+@RegisterReflectionForBinding({
+    UserInfo.class, UserCreateRequest.class, UserUpdateRequest.class,
+    DashboardResponse.class, DashboardSection.class,
+    UserRepresentation.class, RoleRepresentation.class, CredentialRepresentation.class,
+    AccessTokenResponse.class })
+public class NativeHints {
+
+    private static final String RESTEASY_CLIENT_PROXY =
+        "org.jboss.resteasy.client.jaxrs.internal.proxy.ResteasyClientProxy";
+
+    private static final List<String> PROVIDER_SERVICE_FILES = List.of(
+        "META-INF/services/jakarta.ws.rs.ext.Providers",
+        "META-INF/services/jakarta.ws.rs.client.ClientBuilder");
+
+    /** Admin client resources reached from {@code KeycloakAdminService}. */
+    private static final List<Class<?>> ADMIN_RESOURCES = List.of(
+        RealmsResource.class, RealmResource.class, UsersResource.class, UserResource.class,
+        RoleMappingResource.class, RoleScopeResource.class, RolesResource.class, RoleResource.class,
+        TokenService.class);
+
+    static class Registrar implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            for (Class<?> resource : ADMIN_RESOURCES) {
+                hints.reflection().registerType(resource, MemberCategory.INVOKE_PUBLIC_METHODS);
+                hints.proxies().registerJdkProxy(TypeReference.of(resource), TypeReference.of(RESTEASY_CLIENT_PROXY));
+            }
+
+            hints.resources().registerPattern("META-INF/services/jakarta.ws.rs.*");
+            hints.resources().registerPattern("META-INF/services/org.jboss.resteasy.*");
+            for (String serviceFile : PROVIDER_SERVICE_FILES) {
+                for (String provider : serviceEntries(classLoader, serviceFile)) {
+                    hints.reflection().registerType(TypeReference.of(provider),
+                        MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+                }
+            }
+
+            // Session attributes are Java-serialized when app.session.store=redis
+            hints.serialization().registerType(CompactOidcUser.class);
+            hints.serialization().registerType(IndexedAuthority.class);
+        }
+
+        /**
+         * Provider class names listed in every copy of a service file on the
+         * build classpath, so new RESTEasy providers need no hint changes.
+         */
+        private static List<String> serviceEntries(ClassLoader classLoader, String serviceFile) {
+            try {
+                List<String> entries = new ArrayList<>();
+                Enumeration<URL> urls = classLoader.getResources(serviceFile);
+                while (urls.hasMoreElements()) {
+                    try (BufferedReader reader = new BufferedReader(
+                            new InputStreamReader(urls.nextElement().openStream(), StandardCharsets.UTF_8))) {
+                        reader.lines()
+                            .map(line -> line.replaceFirst("#.*", "").trim())
+                            .filter(line -> !line.isEmpty())
+                            .forEach(entries::add);
+                    }
+                }
+                return entries;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read " + serviceFile, e);
+            }
+        }
+    }
+}
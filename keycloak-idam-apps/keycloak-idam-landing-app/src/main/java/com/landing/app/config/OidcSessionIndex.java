@@ -0,0 +1,26 @@
+package com.landing.app.config;
+
+import org.springframework.security.oauth2.core.oidc.user.OidcUser;
+
+import jakarta.servlet.http.HttpSession;
+
+/**
+ * Index from Keycloak session ({@code sid}) and subject ({@code sub}) to the
+ * HTTP sessions they logged in, so a back-channel logout token can end the
+ * matching sessions. The index lives wherever the sessions do:
+ * {@link LocalOidcSessionIndex} for sessions in this JVM, and
+ * {@link RedisOidcSessionIndex} when {@code app.session.store=redis}, where
+ * the logout may reach any replica.
+ */
+public interface OidcSessionIndex {
+
+    void register(HttpSession session, OidcUser user);
+
+    /**
+     * Ends every session belonging to the Keycloak session {@code sid}, or to
+     * the subject when the logout token carries no {@code sid}.
+     *
+     * @return the number of sessions ended
+     */
+    int logout(String sid, String subject);
+}
@@ -0,0 +1,115 @@
+package com.landing.app.config;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.MethodClassKey;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.AuthorizationResult;
+import org.springframework.security.authorization.method.PreAuthorizeAuthorizationManager;
+import org.springframework.security.core.Authentication;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@code @PreAuthorize} manager that evaluates the plain role checks used on
+ * the controllers ({@code hasRole}, {@code hasAnyRole}, {@code hasAuthority},
+ * {@code hasAnyAuthority}) as a bit test against the caller's
+ * {@link IndexedAuthority} mask. Each annotated method is compiled once;
+ * anything else falls back to the regular SpEL manager.
+ */
+@Slf4j
+public class PrecompiledPreAuthorizeManager implements AuthorizationManager<MethodInvocation> {
+
+    private static final Pattern SIMPLE_CHECK =
+        Pattern.compile("\\s*(hasRole|hasAnyRole|hasAuthority|hasAnyAuthority)\\(\\s*('[^']*'(?:\\s*,\\s*'[^']*')*)\\s*\\)\\s*");
+    private static final Pattern QUOTED = Pattern.compile("'([^']*)'");
+
+    private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+    private static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+    private static final long NOT_COMPILED = 0L;
+
+    private final PreAuthorizeAuthorizationManager spel = new PreAuthorizeAuthorizationManager();
+    private final Map<MethodClassKey, Long> compiled = new ConcurrentHashMap<>();
+    private final String rolePrefix;
+    private final boolean enabled;
+
+    public PrecompiledPreAuthorizeManager(String rolePrefix, boolean enabled) {
+        this.rolePrefix = rolePrefix;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public AuthorizationResult authorize(Supplier<? extends Authentication> authentication, MethodInvocation invocation) {
+        if (!enabled) {
+            return spel.authorize(authentication, invocation);
+        }
+        Object target = invocation.getThis();
+        Class<?> targetClass = target == null ? invocation.getMethod().getDeclaringClass() : AopUtils.getTargetClass(target);
+        MethodClassKey key = new MethodClassKey(invocation.getMethod(), targetClass);
+        Long required = compiled.get(key);
+        if (required == null) {
+            required = compile(invocation.getMethod(), targetClass);
+            compiled.put(key, required);
+        }
+        if (required == NOT_COMPILED) {
+            return spel.authorize(authentication, invocation);
+        }
+        Authentication current = authentication.get();
+        return current != null && (mask(current) & required) != 0 ? GRANTED : DENIED;
+    }
+
+    /**
+     * Bits of the authorities any one of which satisfies the method's
+     * expression, or {@link #NOT_COMPILED} when SpEL has to decide.
+     */
+    private long compile(Method method, Class<?> targetClass) {
+        String expression = expression(method, targetClass);
+        Matcher matcher = expression == null ? null : SIMPLE_CHECK.matcher(expression);
+        if (matcher == null || !matcher.matches()) {
+            return NOT_COMPILED;
+        }
+        boolean roles = matcher.group(1).endsWith("Role");
+        long required = 0L;
+        // Quoted names, not a split on commas: an authority name may itself contain one
+        Matcher arguments = QUOTED.matcher(matcher.group(2));
+        while (arguments.find()) {
+            String name = arguments.group(1);
+            if (roles && !name.startsWith(rolePrefix)) {
+                name = rolePrefix + name;
+            }
+            long bit = IndexedAuthority.of(name).bit();
+            if (bit == 0L) {
+                return NOT_COMPILED;
+            }
+            required |= bit;
+        }
+        log.debug("Compiled @PreAuthorize(\"{}\") on {}.{} to a bit mask", expression, targetClass.getSimpleName(), method.getName());
+        return required;
+    }
+
+    private static String expression(Method method, Class<?> targetClass) {
+        Method specific = AopUtils.getMostSpecificMethod(method, targetClass);
+        PreAuthorize annotation = AnnotatedElementUtils.findMergedAnnotation(specific, PreAuthorize.class);
+        if (annotation == null) {
+            annotation = AnnotatedElementUtils.findMergedAnnotation(targetClass, PreAuthorize.class);
+        }
+        return annotation == null ? null : annotation.value();
+    }
+
+    private static long mask(Authentication authentication) {
+        if (authentication.getPrincipal() instanceof CompactOidcUser user && user.getAuthorityMask() != 0L) {
+            return user.getAuthorityMask();
+        }
+        return IndexedAuthority.mask(authentication.getAuthorities());
+    }
+}
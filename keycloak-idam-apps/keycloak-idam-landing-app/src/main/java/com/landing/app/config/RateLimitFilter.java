@@ -0,0 +1,58 @@
+package com.landing.app.config;
+
+import java.io.IOException;
+import java.util.Collections;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Applies {@link RequestRateLimiter} once the request is authenticated and
+ * before it is authorized, keyed by principal name, or by client address for
+ * anonymous requests. Rejected requests get a 429 without reaching a
+ * controller.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RequestRateLimiter requestRateLimiter;
+
+    public RateLimitFilter(RequestRateLimiter requestRateLimiter) {
+        this.requestRateLimiter = requestRateLimiter;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        boolean authenticated = authentication != null && authentication.isAuthenticated()
+            && !(authentication instanceof AnonymousAuthenticationToken);
+
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        RequestRateLimiter.Decision decision = requestRateLimiter.acquire(path,
+            authenticated ? "user:" + authentication.getName() : "addr:" + request.getRemoteAddr(),
+            authenticated ? authentication.getAuthorities() : Collections.emptyList());
+        if (decision == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        response.setHeader("RateLimit-Limit", String.valueOf(decision.getLimit()));
+        response.setHeader("RateLimit-Remaining", String.valueOf(decision.getRemaining()));
+        response.setHeader("RateLimit-Reset", String.valueOf(decision.getResetSeconds()));
+        if (!decision.isAllowed()) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(decision.getRetryAfterSeconds()));
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), "Rate limit exceeded");
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,77 @@
+package com.landing.app.config;
+
+import java.time.Duration;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.security.oauth2.core.oidc.user.OidcUser;
+import org.springframework.session.SessionRepository;
+import org.springframework.stereotype.Component;
+
+import jakarta.servlet.http.HttpSession;
+
+/**
+ * {@link OidcSessionIndex} kept in Redis next to the sessions, so whichever
+ * replica receives a back-channel logout finds the sessions another replica
+ * logged in. Each {@code sid} and {@code sub} maps to a Redis set of session
+ * ids that expires with the Keycloak SSO session, and a logout deletes the
+ * sessions through the shared {@link SessionRepository}.
+ *
+ * Session ids are recorded on login, after session fixation protection has
+ * changed the id. A session that expired on its own leaves its id in the sets
+ * until they expire; deleting it again on logout is a no-op.
+ */
+@Component
+@ConditionalOnProperty(name = "app.session.store", havingValue = "redis")
+public class RedisOidcSessionIndex implements OidcSessionIndex {
+
+    @Value("${app.security.back-channel-logout.entry-ttl-seconds:36000}")
+    private long entryTtlSeconds;
+
+    @Value("${app.session.namespace:keycloak-idam:landing}")
+    private String namespace;
+
+    private final StringRedisTemplate redis;
+    private final SessionRepository<?> sessionRepository;
+
+    public RedisOidcSessionIndex(StringRedisTemplate redis, SessionRepository<?> sessionRepository) {
+        this.redis = redis;
+        this.sessionRepository = sessionRepository;
+    }
+
+    @Override
+    public void register(HttpSession session, OidcUser user) {
+        link(key("sid", user.getClaimAsString("sid")), session.getId());
+        link(key("sub", user.getSubject()), session.getId());
+    }
+
+    @Override
+    public int logout(String sid, String subject) {
+        String key = sid != null ? key("sid", sid) : key("sub", subject);
+        Set<String> sessionIds = redis.opsForSet().members(key);
+        if (sessionIds == null || sessionIds.isEmpty()) {
+            return 0;
+        }
+        for (String sessionId : sessionIds) {
+            sessionRepository.deleteById(sessionId);
+        }
+        redis.delete(key);
+        if (sid != null && subject != null) {
+            redis.opsForSet().remove(key("sub", subject), sessionIds.toArray());
+        }
+        return sessionIds.size();
+    }
+
+    private void link(String key, String sessionId) {
+        if (key != null) {
+            redis.opsForSet().add(key, sessionId);
+            redis.expire(key, Duration.ofSeconds(entryTtlSeconds));
+        }
+    }
+
+    private String key(String kind, String value) {
+        return value == null ? null : namespace + ":oidc:" + kind + ":" + value;
+    }
+}
@@ -0,0 +1,54 @@
+package com.landing.app.config;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+/**
+ * Adds a service token for one audience to requests made through a
+ * {@code RestTemplate} or {@code RestClient} to that audience's base URL.
+ * Requests that already carry an {@code Authorization} header, such as a
+ * relayed user token, are left as they are. A token the target rejects with
+ * 401 is dropped so the next request fetches a new one.
+ *
+ * A token that cannot be obtained fails the request with an
+ * {@link IOException}, which {@code RestTemplate} reports as a
+ * {@code ResourceAccessException} like any other unreachable backend.
+ */
+public class ServiceTokenInterceptor implements ClientHttpRequestInterceptor {
+
+    private final ServiceTokenManager tokenManager;
+    private final String baseUrl;
+    private final String audience;
+
+    public ServiceTokenInterceptor(ServiceTokenManager tokenManager, String baseUrl, String audience) {
+        this.tokenManager = tokenManager;
+        this.baseUrl = baseUrl;
+        this.audience = audience;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        if (request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION) != null
+                || !request.getURI().toString().startsWith(baseUrl)) {
+            return execution.execute(request, body);
+        }
+        String token;
+        try {
+            token = tokenManager.token(audience);
+        } catch (IllegalStateException ex) {
+            throw new IOException(ex.getMessage(), ex.getCause());
+        }
+        request.getHeaders().setBearerAuth(token);
+        ClientHttpResponse response = execution.execute(request, body);
+        if (response.getStatusCode().value() == 401) {
+            tokenManager.invalidate(audience, token);
+        }
+        return response;
+    }
+}
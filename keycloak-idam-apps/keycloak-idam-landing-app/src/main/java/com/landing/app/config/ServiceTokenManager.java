@@ -0,0 +1,247 @@
+package com.landing.app.config;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import com.nimbusds.jose.util.JSONObjectUtils;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Client-credentials access tokens for calls from this app to the other
+ * backends, one per target audience.
+ *
+ * A token is fetched once and then refreshed in the background ahead of its
+ * expiry, so in the steady state callers read it from memory and never wait
+ * on Keycloak. Only the first call for an audience, or a call after the
+ * token lapsed because refreshes kept failing, waits for a fetch, bounded by
+ * the request timeout. Concurrent fetches for the same audience are merged
+ * into one. The audience is requested as a Keycloak client scope, which is
+ * expected to add the matching {@code aud} claim through an audience mapper.
+ *
+ * Token requests run on their own virtual threads; the scheduler only decides
+ * when to start them, so a slow Keycloak never holds up another audience's
+ * refresh.
+ *
+ * Attach tokens to outgoing requests with {@link #interceptor(String, String)},
+ * as the backend {@code RestTemplate} does, or through
+ * {@code RestClient.builder().requestInterceptor(...)}.
+ */
+@Slf4j
+@Component
+public class ServiceTokenManager implements InitializingBean, DisposableBean {
+
+    // A token is not handed out during its last seconds, so it cannot expire in flight
+    private static final long EXPIRY_MARGIN_MILLIS = 5_000;
+
+    @Value("${app.service-tokens.token-uri}")
+    private String tokenUri;
+
+    @Value("${app.service-tokens.client-id}")
+    private String clientId;
+
+    @Value("${app.service-tokens.client-secret}")
+    private String clientSecret;
+
+    @Value("${app.service-tokens.audiences:}")
+    private List<String> audiences;
+
+    @Value("${app.service-tokens.refresh-before-expiry-seconds:60}")
+    private long refreshBeforeExpirySeconds;
+
+    @Value("${app.service-tokens.retry-seconds:5}")
+    private long retrySeconds;
+
+    @Value("${app.service-tokens.request-timeout-millis:2000}")
+    private long requestTimeoutMillis;
+
+    private final Map<String, CachedToken> tokens = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<CachedToken>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, ScheduledFuture<?>> scheduledRefreshes = new ConcurrentHashMap<>();
+    private final Meter.MeterProvider<Timer> fetchTimer;
+    private HttpClient httpClient;
+    private ScheduledExecutorService scheduler;
+    private ExecutorService fetchExecutor;
+
+    public ServiceTokenManager(MeterRegistry meterRegistry) {
+        this.fetchTimer = Timer.builder("service.tokens.fetch")
+            .description("Client-credentials token requests to Keycloak")
+            .withRegistry(meterRegistry);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofMillis(requestTimeoutMillis))
+            .build();
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "service-token-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        fetchExecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("service-token-fetch-", 0).factory());
+
+        // Fetched in the background so startup does not depend on Keycloak
+        audiences.stream()
+            .filter(StringUtils::hasText)
+            .forEach(this::refreshAsync);
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+        fetchExecutor.shutdownNow();
+    }
+
+    /**
+     * @return a valid token for {@code audience}, from memory unless none has
+     * been fetched yet or the last one has lapsed
+     */
+    public String token(String audience) {
+        long now = System.currentTimeMillis();
+        CachedToken cached = tokens.get(audience);
+        if (cached != null && cached.expiresAtMillis > now) {
+            ScheduledFuture<?> scheduled = scheduledRefreshes.get(audience);
+            if (cached.refreshAtMillis <= now && (scheduled == null || scheduled.isDone())) {
+                // Overdue with nothing scheduled; joins a running fetch or starts one, without waiting
+                refreshAsync(audience);
+            }
+            return cached.value;
+        }
+
+        try {
+            return refreshAsync(audience).get(requestTimeoutMillis, TimeUnit.MILLISECONDS).value;
+        } catch (TimeoutException ex) {
+            throw new IllegalStateException("Timed out waiting for a service token for " + audience, ex);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause() instanceof CompletionException ? ex.getCause().getCause() : ex.getCause();
+            throw new IllegalStateException("Could not obtain a service token for " + audience, cause);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for a service token for " + audience, ex);
+        }
+    }
+
+    /** Drops {@code token} if it is still the cached one, e.g. after the target rejected it. */
+    public void invalidate(String audience, String token) {
+        tokens.computeIfPresent(audience, (key, cached) -> cached.value.equals(token) ? null : cached);
+    }
+
+    /** Adds a token for {@code audience} to requests under {@code baseUrl} that carry no other credentials. */
+    public ClientHttpRequestInterceptor interceptor(String baseUrl, String audience) {
+        return new ServiceTokenInterceptor(this, baseUrl, audience);
+    }
+
+    /** Single-flight: joins the fetch already running for the audience, or starts one. */
+    private CompletableFuture<CachedToken> refreshAsync(String audience) {
+        return inFlight.compute(audience, (key, running) -> running != null && !running.isDone()
+            ? running
+            : CompletableFuture.supplyAsync(() -> fetchAndStore(key), fetchExecutor));
+    }
+
+    private CachedToken fetchAndStore(String audience) {
+        Timer.Sample sample = Timer.start();
+        String outcome = "error";
+        try {
+            CachedToken token = fetch(audience);
+            tokens.put(audience, token);
+            scheduleRefresh(audience, token.refreshAtMillis - System.currentTimeMillis());
+            outcome = "success";
+            return token;
+        } catch (IOException | ParseException ex) {
+            log.warn("Service token request for {} failed: {}", audience, ex.getMessage());
+            CachedToken current = tokens.get(audience);
+            if (current != null && current.expiresAtMillis > System.currentTimeMillis()) {
+                scheduleRefresh(audience, TimeUnit.SECONDS.toMillis(retrySeconds));
+            }
+            throw new CompletionException(ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(ex);
+        } finally {
+            sample.stop(fetchTimer.withTags("audience", audience, "outcome", outcome));
+        }
+    }
+
+    private void scheduleRefresh(String audience, long delayMillis) {
+        scheduledRefreshes.compute(audience, (key, previous) -> {
+            if (previous != null) {
+                previous.cancel(false);
+            }
+            return scheduler.schedule(() -> refreshAsync(key), Math.max(0, delayMillis), TimeUnit.MILLISECONDS);
+        });
+    }
+
+    private CachedToken fetch(String audience) throws IOException, InterruptedException, ParseException {
+        StringBuilder form = new StringBuilder("grant_type=client_credentials")
+            .append("&client_id=").append(URLEncoder.encode(clientId, StandardCharsets.UTF_8))
+            .append("&client_secret=").append(URLEncoder.encode(clientSecret, StandardCharsets.UTF_8));
+        if (StringUtils.hasText(audience)) {
+            form.append("&scope=").append(URLEncoder.encode(audience, StandardCharsets.UTF_8));
+        }
+        HttpRequest request = HttpRequest.newBuilder(URI.create(tokenUri))
+            .timeout(Duration.ofMillis(requestTimeoutMillis))
+            .header("Content-Type", "application/x-www-form-urlencoded")
+            .header("Accept", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(form.toString()))
+            .build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IOException("Unexpected status " + response.statusCode());
+        }
+
+        Map<String, Object> body = JSONObjectUtils.parse(response.body());
+        String value = JSONObjectUtils.getString(body, "access_token");
+        if (value == null) {
+            throw new IOException("No access_token in token response");
+        }
+        long now = System.currentTimeMillis();
+        long expiresAt = now + TimeUnit.SECONDS.toMillis(JSONObjectUtils.getLong(body, "expires_in"));
+        // Refresh ahead of expiry, but not before half the lifetime of a short-lived token
+        long refreshAt = Math.max(now + (expiresAt - now) / 2,
+            expiresAt - TimeUnit.SECONDS.toMillis(refreshBeforeExpirySeconds));
+        return new CachedToken(value, expiresAt - EXPIRY_MARGIN_MILLIS, refreshAt);
+    }
+
+    private static final class CachedToken {
+
+        final String value;
+        final long expiresAtMillis;
+        final long refreshAtMillis;
+
+        CachedToken(String value, long expiresAtMillis, long refreshAtMillis) {
+            this.value = value;
+            this.expiresAtMillis = expiresAtMillis;
+            this.refreshAtMillis = refreshAtMillis;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.landing.app.controller;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.landing.app.dto.DashboardResponse;
+import com.landing.app.service.DashboardService;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/dashboard")
+public class DashboardController {
+
+    private final DashboardService dashboardService;
+
+    public DashboardController(DashboardService dashboardService) {
+        this.dashboardService = dashboardService;
+    }
+
+    @GetMapping
+    public DashboardResponse getDashboard(
+            Authentication authentication,
+            @RequestParam(defaultValue = "false") boolean refresh) {
+        return dashboardService.getDashboard(authentication, refresh);
+    }
+}
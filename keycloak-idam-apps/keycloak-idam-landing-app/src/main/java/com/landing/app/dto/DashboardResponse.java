@@ -0,0 +1,27 @@
+package com.landing.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardResponse {
+
+    private String username;
+    private String email;
+    private List<String> roles;
+    private DashboardSection reports;
+    private DashboardSection files;
+
+    // True when a backend timed out or failed and its section is empty
+    private boolean partial;
+    private boolean cached;
+    private Instant generatedAt;
+}
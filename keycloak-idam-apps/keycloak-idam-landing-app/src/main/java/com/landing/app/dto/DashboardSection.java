@@ -0,0 +1,26 @@
+package com.landing.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One backend's part of the dashboard. {@code status} is {@code ok},
+ * {@code forbidden} (the user lacks the backend's role), {@code timeout} or
+ * {@code unavailable}; items are empty unless it is {@code ok}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardSection {
+
+    private String status;
+    private List<Map<String, Object>> items;
+    private int count;
+    private long elapsedMillis;
+}
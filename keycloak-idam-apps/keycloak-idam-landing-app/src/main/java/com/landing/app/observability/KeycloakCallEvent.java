@@ -0,0 +1,23 @@
+package com.landing.app.observability;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.landing.app.KeycloakCall")
+@Label("Keycloak Admin Call")
+@Category({"Keycloak IDAM", "Keycloak"})
+@StackTrace(false)
+public class KeycloakCallEvent extends Event {
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Outcome")
+    public String outcome;
+
+    @Label("HTTP Status")
+    public int httpStatus;
+}
@@ -0,0 +1,31 @@
+package com.landing.app.observability;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.propagation.Propagator;
+import jakarta.ws.rs.client.ClientRequestContext;
+import jakarta.ws.rs.client.ClientRequestFilter;
+
+/**
+ * Adds W3C trace-context headers for the current span to JAX-RS client
+ * requests, which the Keycloak admin client sends outside Spring's
+ * instrumented HTTP clients.
+ */
+public class TraceContextClientFilter implements ClientRequestFilter {
+
+    private final Tracer tracer;
+    private final Propagator propagator;
+
+    public TraceContextClientFilter(Tracer tracer, Propagator propagator) {
+        this.tracer = tracer;
+        this.propagator = propagator;
+    }
+
+    @Override
+    public void filter(ClientRequestContext request) {
+        Span span = tracer.currentSpan();
+        if (span != null) {
+            propagator.inject(span.context(), request.getHeaders(), (headers, key, value) -> headers.putSingle(key, value));
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.landing.app.service;
+
+import java.net.http.HttpTimeoutException;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.client.OAuth2AuthorizeRequest;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientManager;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.core.oidc.user.OidcUser;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import com.landing.app.dto.DashboardResponse;
+import com.landing.app.dto.DashboardSection;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Builds the landing page dashboard from the report and file backends in one
+ * request. Both backends are called at the same time with the user's own
+ * access token, so the dashboard takes as long as the slower of the two.
+ * Each call is bounded by the backend client's timeouts, and a backend that
+ * fails or times out leaves its section empty instead of failing the
+ * dashboard. Complete dashboards are cached per user for
+ * {@code app.dashboard.cache-ttl-seconds}.
+ */
+@Slf4j
+@Service
+public class DashboardService {
+
+    private static final ParameterizedTypeReference<List<Map<String, Object>>> ITEMS =
+        new ParameterizedTypeReference<>() { };
+
+    @Value("${app.dashboard.report-api-url}")
+    private String reportApiUrl;
+
+    @Value("${app.dashboard.file-api-url}")
+    private String fileApiUrl;
+
+    @Value("${app.dashboard.cache-ttl-seconds:10}")
+    private long cacheTtlSeconds;
+
+    @Value("${app.dashboard.cache-max-entries:10000}")
+    private int cacheMaxEntries;
+
+    private final RestTemplate restTemplate;
+    private final FanOut fanOut;
+    private final OAuth2AuthorizedClientManager authorizedClientManager;
+    private final Meter.MeterProvider<Timer> backendTimer;
+    private final Map<String, CachedDashboard> cache = new ConcurrentHashMap<>();
+
+    public DashboardService(RestTemplate restTemplate, FanOut fanOut,
+                            OAuth2AuthorizedClientManager authorizedClientManager, MeterRegistry meterRegistry) {
+        this.restTemplate = restTemplate;
+        this.fanOut = fanOut;
+        this.authorizedClientManager = authorizedClientManager;
+        this.backendTimer = Timer.builder("dashboard.backend.calls")
+            .description("Calls from the dashboard to the report and file backends")
+            .publishPercentileHistogram()
+            .withRegistry(meterRegistry);
+    }
+
+    /**
+     * Must be called on the request thread: a browser session's token is looked
+     * up, and refreshed if needed, through the current request.
+     */
+    public DashboardResponse getDashboard(Authentication authentication, boolean refresh) {
+        String key = authentication.getName();
+        long now = System.currentTimeMillis();
+        if (!refresh) {
+            CachedDashboard cached = cache.get(key);
+            if (cached != null && cached.expiresAtMillis > now) {
+                return cached.dashboard.toBuilder().cached(true).build();
+            }
+        }
+
+        String token = accessToken(authentication);
+        DashboardSection reports;
+        DashboardSection files;
+        if (token == null) {
+            reports = section("unavailable", List.of(), 0L);
+            files = section("unavailable", List.of(), 0L);
+        } else {
+            try (FanOut.Scope scope = fanOut.open()) {
+                Supplier<DashboardSection> reportCall = scope.fork(() -> fetch("reports", reportApiUrl + "/api/reports", token));
+                Supplier<DashboardSection> fileCall = scope.fork(() -> fetch("files", fileApiUrl + "/api/files", token));
+                scope.join();
+                reports = reportCall.get();
+                files = fileCall.get();
+            }
+        }
+
+        DashboardResponse dashboard = DashboardResponse.builder()
+            .username(username(authentication))
+            .email(email(authentication))
+            .roles(authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .filter(authority -> authority.startsWith("ROLE_"))
+                .map(authority -> authority.substring("ROLE_".length()))
+                .collect(Collectors.toList()))
+            .reports(reports)
+            .files(files)
+            .partial(isFailed(reports) || isFailed(files))
+            .generatedAt(Instant.ofEpochMilli(now))
+            .build();
+        if (!dashboard.isPartial() && cacheTtlSeconds > 0) {
+            store(key, dashboard, now);
+        }
+        return dashboard;
+    }
+
+    private DashboardSection fetch(String backend, String url, String token) {
+        long start = System.nanoTime();
+        List<Map<String, Object>> items = List.of();
+        String status;
+        try {
+            HttpHeaders headers = new HttpHeaders();
+            headers.setBearerAuth(token);
+            headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+            List<Map<String, Object>> body = restTemplate
+                .exchange(url, HttpMethod.GET, new HttpEntity<>(headers), ITEMS)
+                .getBody();
+            items = body == null ? List.of() : body;
+            status = "ok";
+        } catch (HttpClientErrorException.Forbidden e) {
+            status = "forbidden";
+        } catch (ResourceAccessException e) {
+            status = e.getCause() instanceof HttpTimeoutException ? "timeout" : "unavailable";
+            log.warn("Dashboard call to {} failed: {}", backend, e.getMessage());
+        } catch (RestClientException e) {
+            status = "unavailable";
+            log.warn("Dashboard call to {} failed: {}", backend, e.getMessage());
+        }
+        long elapsed = System.nanoTime() - start;
+        backendTimer.withTags("backend", backend, "status", status).record(elapsed, TimeUnit.NANOSECONDS);
+        return section(status, items, TimeUnit.NANOSECONDS.toMillis(elapsed));
+    }
+
+    private String accessToken(Authentication authentication) {
+        if (authentication instanceof JwtAuthenticationToken jwtAuthentication) {
+            return jwtAuthentication.getToken().getTokenValue();
+        }
+        if (authentication instanceof OAuth2AuthenticationToken oauth2Authentication) {
+            OAuth2AuthorizedClient client = authorizedClientManager.authorize(OAuth2AuthorizeRequest
+                .withClientRegistrationId(oauth2Authentication.getAuthorizedClientRegistrationId())
+                .principal(authentication)
+                .build());
+            if (client != null) {
+                return client.getAccessToken().getTokenValue();
+            }
+        }
+        return null;
+    }
+
+    private static String username(Authentication authentication) {
+        if (authentication.getPrincipal() instanceof OidcUser oidcUser) {
+            return oidcUser.getPreferredUsername();
+        }
+        if (authentication instanceof JwtAuthenticationToken jwtAuthentication) {
+            String preferred = jwtAuthentication.getToken().getClaimAsString("preferred_username");
+            return preferred != null ? preferred : jwtAuthentication.getName();
+        }
+        return authentication.getName();
+    }
+
+    private static String email(Authentication authentication) {
+        if (authentication.getPrincipal() instanceof OidcUser oidcUser) {
+            return oidcUser.getEmail();
+        }
+        if (authentication instanceof JwtAuthenticationToken jwtAuthentication) {
+            return jwtAuthentication.getToken().getClaimAsString("email");
+        }
+        return null;
+    }
+
+    private static DashboardSection section(String status, List<Map<String, Object>> items, long elapsedMillis) {
+        return DashboardSection.builder()
+            .status(status)
+            .items(items)
+            .count(items.size())
+            .elapsedMillis(elapsedMillis)
+            .build();
+    }
+
+    private static boolean isFailed(DashboardSection section) {
+        return !"ok".equals(section.getStatus()) && !"forbidden".equals(section.getStatus());
+    }
+
+    private void store(String key, DashboardResponse dashboard, long now) {
+        if (cache.size() >= cacheMaxEntries) {
+            cache.values().removeIf(existing -> existing.expiresAtMillis <= now);
+            if (cache.size() >= cacheMaxEntries) {
+                // Still full: drop an arbitrary tenth, as the token cache does
+                Iterator<String> keys = cache.keySet().iterator();
+                for (int i = Math.max(1, cacheMaxEntries / 10); i > 0 && keys.hasNext(); i--) {
+                    keys.next();
+                    keys.remove();
+                }
+            }
+        }
+        cache.put(key, new CachedDashboard(dashboard, now + TimeUnit.SECONDS.toMillis(cacheTtlSeconds)));
+    }
+
+    private static final class CachedDashboard {
+
+        final DashboardResponse dashboard;
+        final long expiresAtMillis;
+
+        CachedDashboard(DashboardResponse dashboard, long expiresAtMillis) {
+            this.dashboard = dashboard;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.landing.app.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+
+/**
+ * Runs independent blocking calls side by side on virtual threads.
+ *
+ * <p>A {@link Scope} follows the shape of {@code StructuredTaskScope.ShutdownOnFailure},
+ * which is still a preview API in Java 21: subtasks are forked, {@link Scope#join()}
+ * waits for all of them, the first failure cancels the rest and is rethrown to
+ * the caller, and no subtask outlives the scope. Subtasks run in the caller's
+ * trace span, but outside its {@code RequestTimings}: the caller's own span,
+ * such as the {@code KEYCLOAK} one around every admin operation, times the
+ * whole fan-out. At most {@code app.fan-out.max-concurrency} subtasks of an
+ * operation run at once, and a scope gives up after {@code app.fan-out.timeout-seconds}.
+ *
+ * <p>A scope opened inside a subtask, such as the role assignment within
+ * {@code createUser}, shares the permits of the scope that forked the subtask,
+ * so nesting does not multiply the bound. While the subtask waits in
+ * {@link Scope#join()} it hands its own permit to its children, so a full
+ * set of waiting parents cannot starve them.
+ */
+@Component
+public class FanOut {
+
+    private static final ThreadFactory THREADS = Thread.ofVirtual().name("fan-out-", 0).factory();
+
+    // Permits of the operation whose subtask runs on this thread; each subtask has its own virtual thread
+    private static final ThreadLocal<Semaphore> OPERATION_PERMITS = new ThreadLocal<>();
+
+    @Value("${app.fan-out.max-concurrency:8}")
+    private int maxConcurrency;
+
+    @Value("${app.fan-out.timeout-seconds:30}")
+    private long timeoutSeconds;
+
+    private final Tracer tracer;
+
+    public FanOut(ObjectProvider<Tracer> tracer) {
+        this.tracer = tracer.getIfAvailable(() -> Tracer.NOOP);
+    }
+
+    public Scope open() {
+        return new Scope();
+    }
+
+    /** Applies {@code mapper} to every item concurrently and returns the results in item order. */
+    public <T, R> List<R> map(Collection<T> items, Function<? super T, ? extends R> mapper) {
+        if (items.size() <= 1) {
+            return items.stream().<R>map(mapper).toList();
+        }
+        try (Scope scope = open()) {
+            List<Supplier<R>> results = new ArrayList<>(items.size());
+            for (T item : items) {
+                results.add(scope.fork(() -> mapper.apply(item)));
+            }
+            scope.join();
+            return results.stream().map(Supplier::get).toList();
+        }
+    }
+
+    /** Runs the tasks concurrently and returns once all have completed. */
+    public void run(Runnable... tasks) {
+        try (Scope scope = open()) {
+            for (Runnable task : tasks) {
+                scope.fork(() -> {
+                    task.run();
+                    return null;
+                });
+            }
+            scope.join();
+        }
+    }
+
+    public final class Scope implements AutoCloseable {
+
+        private final ExecutorService executor = Executors.newThreadPerTaskExecutor(THREADS);
+        private final ExecutorCompletionService<Object> completion = new ExecutorCompletionService<>(executor);
+        private final List<Future<Object>> forks = new ArrayList<>();
+        private final Semaphore permits;
+        private final boolean nested;
+        private final Span parent = tracer.currentSpan();
+        private final long deadlineNanos = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+
+        private Scope() {
+            Semaphore inherited = OPERATION_PERMITS.get();
+            this.nested = inherited != null;
+            this.permits = nested ? inherited : new Semaphore(maxConcurrency);
+        }
+
+        /** Starts {@code task}; its result is available from the supplier after {@link #join()}. */
+        @SuppressWarnings("unchecked")
+        public <T> Supplier<T> fork(Callable<? extends T> task) {
+            Future<Object> future = completion.submit(() -> {
+                permits.acquire();
+                OPERATION_PERMITS.set(permits);
+                try (Tracer.SpanInScope ignored = tracer.withSpan(parent)) {
+                    return task.call();
+                } finally {
+                    OPERATION_PERMITS.remove();
+                    permits.release();
+                }
+            });
+            forks.add(future);
+            return () -> (T) future.resultNow();
+        }
+
+        /**
+         * Waits for every forked subtask. The first one to fail cancels the others
+         * and its exception is rethrown, unchecked exceptions as they are.
+         */
+        public void join() {
+            if (nested) {
+                permits.release();
+            }
+            try {
+                for (int i = 0; i < forks.size(); i++) {
+                    Future<Object> done = completion.poll(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (done == null) {
+                        cancelAll();
+                        throw new IllegalStateException("Concurrent calls did not finish within "
+                            + Duration.ofSeconds(timeoutSeconds));
+                    }
+                    done.get();
+                }
+            } catch (ExecutionException e) {
+                cancelAll();
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                if (e.getCause() instanceof Error error) {
+                    throw error;
+                }
+                throw new IllegalStateException(e.getCause());
+            } catch (InterruptedException e) {
+                cancelAll();
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for concurrent calls", e);
+            } finally {
+                if (nested) {
+                    permits.acquireUninterruptibly();
+                }
+            }
+        }
+
+        /** Cancels whatever is still running and waits for it to stop. */
+        @Override
+        public void close() {
+            cancelAll();
+            executor.close();
+        }
+
+        private void cancelAll() {
+            forks.forEach(future -> future.cancel(true));
+        }
+    }
+}
@@ -2,23 +2,33 @@ package com.landing.app.service;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import org.keycloak.admin.client.Keycloak;
-import org.keycloak.admin.client.KeycloakBuilder;
 import org.keycloak.admin.client.resource.RealmResource;
+import org.keycloak.admin.client.resource.RoleScopeResource;
 import org.keycloak.admin.client.resource.UserResource;
 import org.keycloak.admin.client.resource.UsersResource;
 import org.keycloak.representations.idm.CredentialRepresentation;
 import org.keycloak.representations.idm.RoleRepresentation;
 import org.keycloak.representations.idm.UserRepresentation;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.landing.app.dto.UserCreateRequest;
 import com.landing.app.dto.UserInfo;
 import com.landing.app.dto.UserUpdateRequest;
+import com.landing.app.observability.KeycloakCallEvent;
+import com.landing.app.observability.RequestTimings;
 
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import jakarta.ws.rs.WebApplicationException;
 import jakarta.ws.rs.core.Response;
 import lombok.extern.slf4j.Slf4j;
 
@@ -26,186 +36,265 @@ import lombok.extern.slf4j.Slf4j;
 @Service
 public class KeycloakAdminService {
 
-    @Value("${keycloak.auth-server-url}")
-    private String serverUrl;
-
     @Value("${keycloak.realm}")
     private String realm;
 
-    @Value("${keycloak.admin.username}")
-    private String adminUsername;
-
-    @Value("${keycloak.admin.password}")
-    private String adminPassword;
+    private final MeterRegistry meterRegistry;
+    private final Meter.MeterProvider<Timer> callTimer;
+    private final Tracer tracer;
+    private final Keycloak keycloak;
+    private final FanOut fanOut;
 
-    @Value("${keycloak.admin.client-id}")
-    private String adminClientId;
-
-    private Keycloak getKeycloakInstance() {
-        return KeycloakBuilder.builder()
-            .serverUrl(serverUrl)
-            .realm("master")
-            .username(adminUsername)
-            .password(adminPassword)
-            .clientId(adminClientId)
-            .build();
+    public KeycloakAdminService(MeterRegistry meterRegistry, ObjectProvider<Tracer> tracer,
+                                Keycloak keycloak, FanOut fanOut) {
+        this.meterRegistry = meterRegistry;
+        this.callTimer = Timer.builder("keycloak.admin.calls")
+            .description("Keycloak admin API operations")
+            .publishPercentileHistogram()
+            .withRegistry(meterRegistry);
+        this.fanOut = fanOut;
+        this.keycloak = keycloak;
+        this.tracer = tracer.getIfAvailable(() -> Tracer.NOOP);
     }
 
     private RealmResource getRealmResource() {
-        return getKeycloakInstance().realm(realm);
+        return keycloak.realm(realm);
     }
 
     public List<UserInfo> getAllUsers() {
-        UsersResource usersResource = getRealmResource().users();
-        List<UserRepresentation> users = usersResource.list();
-        
-        return users.stream()
-            .map(this::mapToUserInfo)
-            .collect(Collectors.toList());
+        return timed("getAllUsers", () -> {
+            RealmResource realmResource = getRealmResource();
+            List<UserRepresentation> users = realmResource.users().list();
+
+            // One role lookup per user, made concurrently over the same admin client
+            return fanOut.map(users, user -> mapToUserInfo(user, rolesOf(realmResource, user.getId())));
+        });
     }
 
     public com.landing.app.dto.UserInfo getUserById(String userId) {
-        UserResource userResource = getRealmResource().users().get(userId);
-        UserRepresentation user = userResource.toRepresentation();
-        return mapToUserInfo(user);
+        return timed("getUserById", () -> {
+            UserResource userResource = getRealmResource().users().get(userId);
+            UserRepresentation user = userResource.toRepresentation();
+            return mapToUserInfo(user);
+        });
     }
 
     public UserInfo getUserByUsername(String username) {
-        UsersResource usersResource = getRealmResource().users();
-        List<UserRepresentation> users = usersResource.search(username, true);
+        return timed("getUserByUsername", () -> {
+            UsersResource usersResource = getRealmResource().users();
+            List<UserRepresentation> users = usersResource.search(username, true);
         
-        if (users.isEmpty()) {
-            throw new RuntimeException("User not found: " + username);
-        }
+            if (users.isEmpty()) {
+                throw new RuntimeException("User not found: " + username);
+            }
         
-        return mapToUserInfo(users.get(0));
+            return mapToUserInfo(users.get(0));
+        });
     }
 
     public String createUser(UserCreateRequest request) {
-        UsersResource usersResource = getRealmResource().users();
-        
-        UserRepresentation user = new UserRepresentation();
-        user.setUsername(request.getUsername());
-        user.setEmail(request.getEmail());
-        user.setFirstName(request.getFirstName());
-        user.setLastName(request.getLastName());
-        user.setEnabled(request.isEnabled());
-        user.setEmailVerified(request.isEmailVerified());
+        return timed("createUser", () -> {
+            RealmResource realmResource = getRealmResource();
+            UsersResource usersResource = realmResource.users();
         
-        Response response = usersResource.create(user);
-        
-        if (response.getStatus() != 201) {
-            throw new RuntimeException("Failed to create user: " + response.getStatusInfo());
-        }
+            UserRepresentation user = new UserRepresentation();
+            user.setUsername(request.getUsername());
+            user.setEmail(request.getEmail());
+            user.setFirstName(request.getFirstName());
+            user.setLastName(request.getLastName());
+            user.setEnabled(request.isEnabled());
+            user.setEmailVerified(request.isEmailVerified());
         
-        String userId = response.getLocation().getPath().replaceAll(".*/([^/]+)$", "$1");
+            Response response = usersResource.create(user);
         
-        // Set password
-        CredentialRepresentation credential = new CredentialRepresentation();
-        credential.setType(CredentialRepresentation.PASSWORD);
-        credential.setValue(request.getPassword());
-        credential.setTemporary(false);
+            if (response.getStatus() != 201) {
+                throw new RuntimeException("Failed to create user: " + response.getStatusInfo());
+            }
         
-        UserResource userResource = usersResource.get(userId);
-        userResource.resetPassword(credential);
+            String userId = response.getLocation().getPath().replaceAll(".*/([^/]+)$", "$1");
+            response.close();
         
-        // Assign roles
-        if (request.getRoles() != null && !request.getRoles().isEmpty()) {
-            assignRolesToUser(userId, request.getRoles());
-        }
+            CredentialRepresentation credential = new CredentialRepresentation();
+            credential.setType(CredentialRepresentation.PASSWORD);
+            credential.setValue(request.getPassword());
+            credential.setTemporary(false);
         
-        response.close();
-        return userId;
+            // Password and roles are independent once the user exists
+            UserResource userResource = usersResource.get(userId);
+            List<String> roleNames = request.getRoles();
+            fanOut.run(
+                () -> userResource.resetPassword(credential),
+                () -> {
+                    if (roleNames != null && !roleNames.isEmpty()) {
+                        timed("assignRolesToUser", () -> assignRoles(realmResource, userId, roleNames));
+                    }
+                });
+            return userId;
+        });
     }
 
     public void updateUser(String userId, UserUpdateRequest request) {
-        UserResource userResource = getRealmResource().users().get(userId);
-        UserRepresentation user = userResource.toRepresentation();
+        timed("updateUser", () -> {
+            RealmResource realmResource = getRealmResource();
+            UserResource userResource = realmResource.users().get(userId);
+            UserRepresentation user = userResource.toRepresentation();
         
-        if (request.getEmail() != null) {
-            user.setEmail(request.getEmail());
-        }
-        if (request.getFirstName() != null) {
-            user.setFirstName(request.getFirstName());
-        }
-        if (request.getLastName() != null) {
-            user.setLastName(request.getLastName());
-        }
-        if (request.getEnabled() != null) {
-            user.setEnabled(request.getEnabled());
-        }
-        if (request.getEmailVerified() != null) {
-            user.setEmailVerified(request.getEmailVerified());
-        }
+            if (request.getEmail() != null) {
+                user.setEmail(request.getEmail());
+            }
+            if (request.getFirstName() != null) {
+                user.setFirstName(request.getFirstName());
+            }
+            if (request.getLastName() != null) {
+                user.setLastName(request.getLastName());
+            }
+            if (request.getEnabled() != null) {
+                user.setEnabled(request.getEnabled());
+            }
+            if (request.getEmailVerified() != null) {
+                user.setEmailVerified(request.getEmailVerified());
+            }
         
-        userResource.update(user);
+            userResource.update(user);
         
-        // Update password if provided
-        if (request.getPassword() != null && !request.getPassword().isEmpty()) {
-            CredentialRepresentation credential = new CredentialRepresentation();
-            credential.setType(CredentialRepresentation.PASSWORD);
-            credential.setValue(request.getPassword());
-            credential.setTemporary(false);
-            userResource.resetPassword(credential);
-        }
-        
-        // Update roles if provided
-        if (request.getRoles() != null) {
-            assignRolesToUser(userId, request.getRoles());
-        }
+            // Password and roles are updated concurrently, each only if provided
+            fanOut.run(
+                () -> {
+                    if (request.getPassword() != null && !request.getPassword().isEmpty()) {
+                        CredentialRepresentation credential = new CredentialRepresentation();
+                        credential.setType(CredentialRepresentation.PASSWORD);
+                        credential.setValue(request.getPassword());
+                        credential.setTemporary(false);
+                        userResource.resetPassword(credential);
+                    }
+                },
+                () -> {
+                    if (request.getRoles() != null) {
+                        timed("assignRolesToUser", () -> assignRoles(realmResource, userId, request.getRoles()));
+                    }
+                });
+        });
     }
 
     public void deleteUser(String userId) {
-        getRealmResource().users().get(userId).remove();
+        timed("deleteUser", () -> {
+            getRealmResource().users().get(userId).remove();
+        });
     }
 
     public void resetPassword(String userId, String newPassword) {
-        CredentialRepresentation credential = new CredentialRepresentation();
-        credential.setType(CredentialRepresentation.PASSWORD);
-        credential.setValue(newPassword);
-        credential.setTemporary(false);
+        timed("resetPassword", () -> {
+            CredentialRepresentation credential = new CredentialRepresentation();
+            credential.setType(CredentialRepresentation.PASSWORD);
+            credential.setValue(newPassword);
+            credential.setTemporary(false);
         
-        getRealmResource().users().get(userId).resetPassword(credential);
+            getRealmResource().users().get(userId).resetPassword(credential);
+        });
     }
 
     public void assignRolesToUser(String userId, List<String> roleNames) {
-        UserResource userResource = getRealmResource().users().get(userId);
-        
+        timed("assignRolesToUser", () -> assignRoles(getRealmResource(), userId, roleNames));
+    }
+
+    private void assignRoles(RealmResource realmResource, String userId, List<String> roleNames) {
+        RoleScopeResource realmRoles = realmResource.users().get(userId).roles().realmLevel();
+
+        // The current mappings and the roles to add are looked up together
+        List<RoleRepresentation> existingRoles;
+        List<RoleRepresentation> rolesToAdd;
+        try (FanOut.Scope scope = fanOut.open()) {
+            Supplier<List<RoleRepresentation>> existing = scope.fork(realmRoles::listEffective);
+            List<Supplier<RoleRepresentation>> lookups = roleNames.stream()
+                .map(roleName -> scope.fork(() -> {
+                    try {
+                        return realmResource.roles().get(roleName).toRepresentation();
+                    } catch (Exception e) {
+                        return null;
+                    }
+                }))
+                .collect(Collectors.toList());
+            scope.join();
+            existingRoles = existing.get();
+            rolesToAdd = lookups.stream()
+                .map(Supplier::get)
+                .filter(role -> role != null)
+                .collect(Collectors.toList());
+        }
+
         // Remove existing realm roles
-        List<RoleRepresentation> existingRoles = userResource.roles().realmLevel().listEffective();
         if (!existingRoles.isEmpty()) {
-            userResource.roles().realmLevel().remove(existingRoles);
+            realmRoles.remove(existingRoles);
         }
-        
+
         // Add new roles
-        List<RoleRepresentation> rolesToAdd = roleNames.stream()
-            .map(roleName -> {
-                try {
-                    return getRealmResource().roles().get(roleName).toRepresentation();
-                } catch (Exception e) {
-                    return null;
-                }
-            })
-            .filter(role -> role != null)
-            .collect(Collectors.toList());
-        
         if (!rolesToAdd.isEmpty()) {
-            userResource.roles().realmLevel().add(rolesToAdd);
+            realmRoles.add(rolesToAdd);
         }
     }
 
     public List<String> getUserRoles(String userId) {
-        UserResource userResource = getRealmResource().users().get(userId);
-        return userResource.roles().realmLevel().listEffective().stream()
-            .map(RoleRepresentation::getName)
-            .collect(Collectors.toList());
+        return timed("getUserRoles", () -> {
+            UserResource userResource = getRealmResource().users().get(userId);
+            return userResource.roles().realmLevel().listEffective().stream()
+                .map(RoleRepresentation::getName)
+                .collect(Collectors.toList());
+        });
     }
 
     public List<String> getAllRoles() {
-        return getRealmResource().roles().list().stream()
-            .map(RoleRepresentation::getName)
-            .filter(role -> !role.startsWith("default-") && !role.startsWith("offline_") && !role.startsWith("uma_"))
-            .collect(Collectors.toList());
+        return timed("getAllRoles", () -> {
+            return getRealmResource().roles().list().stream()
+                .map(RoleRepresentation::getName)
+                .filter(role -> !role.startsWith("default-") && !role.startsWith("offline_") && !role.startsWith("uma_"))
+                .collect(Collectors.toList());
+        });
+    }
+
+    /**
+     * Records the call in {@code keycloak.admin.calls}, tagged with the service
+     * method and whether it completed or threw, and as a JFR
+     * {@link KeycloakCallEvent}. The call runs in its own trace span, which the
+     * requests to Keycloak carry as their parent.
+     */
+    private <T> T timed(String method, Supplier<T> call) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long span = RequestTimings.start(RequestTimings.Span.KEYCLOAK);
+        KeycloakCallEvent event = new KeycloakCallEvent();
+        event.begin();
+        Span traceSpan = tracer.nextSpan().name("keycloak " + method).tag("keycloak.operation", method).start();
+        String exception = "none";
+        int httpStatus = 0;
+        try (Tracer.SpanInScope scope = tracer.withSpan(traceSpan)) {
+            return call.get();
+        } catch (RuntimeException e) {
+            traceSpan.error(e);
+            exception = e.getClass().getSimpleName();
+            if (e instanceof WebApplicationException webException && webException.getResponse() != null) {
+                httpStatus = webException.getResponse().getStatus();
+            }
+            throw e;
+        } finally {
+            traceSpan.end();
+            RequestTimings.stop(RequestTimings.Span.KEYCLOAK, span);
+            event.end();
+            if (event.shouldCommit()) {
+                event.operation = method;
+                event.outcome = "none".equals(exception) ? "success" : exception;
+                event.httpStatus = httpStatus;
+                event.commit();
+            }
+            sample.stop(callTimer.withTags("method", method,
+                "outcome", "none".equals(exception) ? "success" : "error",
+                "exception", exception));
+        }
+    }
+
+    private void timed(String method, Runnable call) {
+        timed(method, () -> {
+            call.run();
+            return null;
+        });
     }
 
     private UserInfo mapToUserInfo(UserRepresentation user) {
@@ -215,7 +304,22 @@ public class KeycloakAdminService {
         } catch (Exception e) {
             // Ignore role fetching errors
         }
-        
+        return mapToUserInfo(user, roles);
+    }
+
+    private List<String> rolesOf(RealmResource realmResource, String userId) {
+        try {
+            return timed("getUserRoles", () -> realmResource.users().get(userId).roles().realmLevel().listEffective()
+                .stream()
+                .map(RoleRepresentation::getName)
+                .collect(Collectors.toList()));
+        } catch (Exception e) {
+            // Ignore role fetching errors
+            return Collections.emptyList();
+        }
+    }
+
+    private UserInfo mapToUserInfo(UserRepresentation user, List<String> roles) {
         return UserInfo.builder()
             .id(user.getId())
             .username(user.getUsername())
@@ -0,0 +1,174 @@
+package com.landing.app.config;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.core.oidc.OidcIdToken;
+import org.springframework.security.oauth2.core.oidc.OidcUserInfo;
+import org.springframework.security.oauth2.core.oidc.user.DefaultOidcUser;
+import org.springframework.security.oauth2.core.oidc.user.OidcUser;
+
+/**
+ * Session cost of the login principal: {@link DefaultOidcUser} with the ID
+ * token and userinfo response, as {@code SecurityConfig} builds it by default,
+ * against the {@link CompactOidcUser} of {@code app.security.slim-principal}.
+ *
+ * Reports the Java-serialized size, as Spring Session stores it, the size after
+ * {@link CompactSessionSerializer} at the configured 512-byte threshold, and
+ * the heap retained per principal over 100k sessions by default.
+ *
+ * Not a unit test; run it on its own:
+ * {@code mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+ * -Dexec.args="-cp %classpath com.landing.app.config.CompactOidcUserFootprintBenchmark [sessions]"}
+ */
+public class CompactOidcUserFootprintBenchmark {
+
+    private static final String ISSUER = "http://localhost:8081/realms/multi-app-realm";
+    private static final String CLIENT_ID = "landing-page-client";
+    private static final List<GrantedAuthority> AUTHORITIES = List.of(
+        IndexedAuthority.of("ROLE_user"), IndexedAuthority.of("ROLE_report_user"), IndexedAuthority.of("ROLE_file_user"));
+
+    // Keeps the principals reachable until after they were measured
+    private static volatile long sink;
+
+    public static void main(String[] args) {
+        int sessions = args.length == 0 ? 100_000 : Integer.parseInt(args[0].replace("_", ""));
+        CompactSessionSerializer serializer =
+            new CompactSessionSerializer(CompactOidcUserFootprintBenchmark.class.getClassLoader(), 512);
+        // The first pass also retains one-off allocations (class init, JIT), so it is not reported
+        retainedBytes(() -> principals(10_000, CompactOidcUserFootprintBenchmark::defaultUser));
+        retainedBytes(() -> principals(10_000, CompactOidcUserFootprintBenchmark::compactUser));
+
+        System.out.printf("%-16s %16s %16s %16s%n", "principal", "serialized bytes", "session bytes",
+            "retained bytes");
+        report("DefaultOidcUser", CompactOidcUserFootprintBenchmark::defaultUser, sessions, serializer);
+        report("CompactOidcUser", CompactOidcUserFootprintBenchmark::compactUser, sessions, serializer);
+    }
+
+    private static void report(String name, IntFunction<OidcUser> factory, int sessions,
+                               CompactSessionSerializer serializer) {
+        OidcUser sample = factory.apply(sessions);
+        long retained = retainedBytes(() -> principals(sessions, factory));
+        System.out.printf("%-16s %,16d %,16d %,16d%n", name, javaSerialized(sample).length,
+            serializer.serialize(sample).length, retained / sessions);
+    }
+
+    private static OidcUser defaultUser(int i) {
+        OidcIdToken idToken = idToken(i);
+        return new DefaultOidcUser(AUTHORITIES, idToken, new OidcUserInfo(userInfoClaims(i)));
+    }
+
+    private static OidcUser compactUser(int i) {
+        return CompactOidcUser.from(idToken(i), AUTHORITIES);
+    }
+
+    /** A Keycloak ID token as Spring's decoder hands it over, converted claim types included. */
+    private static OidcIdToken idToken(int i) {
+        Instant issuedAt = Instant.now();
+        Map<String, Object> claims = new LinkedHashMap<>();
+        claims.put("exp", issuedAt.plusSeconds(300));
+        claims.put("iat", issuedAt);
+        claims.put("auth_time", issuedAt);
+        claims.put("jti", UUID.randomUUID().toString());
+        claims.put("iss", url(ISSUER));
+        claims.put("aud", List.of(CLIENT_ID));
+        claims.put("sub", subject(i));
+        claims.put("typ", "ID");
+        claims.put("azp", CLIENT_ID);
+        claims.put("nonce", randomToken(43));
+        claims.put("sid", UUID.randomUUID().toString());
+        claims.put("at_hash", randomToken(22));
+        claims.put("acr", "1");
+        claims.putAll(userInfoClaims(i));
+        return new OidcIdToken(tokenValue(claims), issuedAt, issuedAt.plusSeconds(300), claims);
+    }
+
+    private static Map<String, Object> userInfoClaims(int i) {
+        Map<String, Object> claims = new LinkedHashMap<>();
+        claims.put("sub", subject(i));
+        claims.put("email_verified", Boolean.TRUE);
+        claims.put("name", "User " + i + " Tester");
+        claims.put("preferred_username", "user" + i);
+        claims.put("given_name", "User " + i);
+        claims.put("family_name", "Tester");
+        claims.put("email", "user" + i + "@example.com");
+        return claims;
+    }
+
+    private static String subject(int i) {
+        return new UUID(i, ~i).toString();
+    }
+
+    /** Roughly the compact JWS Keycloak issues: RS256 header, the claims, a 256-byte signature. */
+    private static String tokenValue(Map<String, Object> claims) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String header = "{\"alg\":\"RS256\",\"typ\":\"JWT\",\"kid\":\"" + randomToken(43) + "\"}";
+        return encoder.encodeToString(header.getBytes(StandardCharsets.UTF_8)) + "."
+            + encoder.encodeToString(claims.toString().getBytes(StandardCharsets.UTF_8)) + "."
+            + randomToken(342);
+    }
+
+    private static String randomToken(int length) {
+        byte[] bytes = new byte[length * 3 / 4 + 1];
+        new Random().nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes).substring(0, length);
+    }
+
+    private static Object url(String value) {
+        try {
+            return URI.create(value).toURL();
+        } catch (MalformedURLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static OidcUser[] principals(int count, IntFunction<OidcUser> factory) {
+        OidcUser[] principals = new OidcUser[count];
+        for (int i = 0; i < count; i++) {
+            principals[i] = factory.apply(i);
+        }
+        return principals;
+    }
+
+    private static byte[] javaSerialized(Object value) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /** Heap still in use after building the principals, measured while they are reachable. */
+    private static long retainedBytes(Supplier<Object> builder) {
+        long before = usedHeap();
+        Object structure = builder.get();
+        long after = usedHeap();
+        sink += System.identityHashCode(structure);
+        return after - before;
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,107 @@
+package com.landing.app.config;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Per-request cost of turning Keycloak role claims into authorities:
+ * {@link RoleAuthorityMapper} against the stream/HashSet mapping it replaced
+ * in the SecurityConfigs.
+ *
+ * Run with the GC profiler to see allocation per call ({@code gc.alloc.rate.norm}):
+ * {@code mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+ * -Dexec.args="-cp %classpath org.openjdk.jmh.Main RoleAuthorityMapperBenchmark -prof gc"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoleAuthorityMapperBenchmark {
+
+    private static final String CLIENT_ID = "landing-page-client";
+
+    private RoleAuthorityMapper mapper;
+    private Map<String, Object> claims;
+
+    @Setup
+    public void setUp() {
+        AuthAuditLog auditLog = new AuthAuditLog();
+        ReflectionTestUtils.setField(auditLog, "enabled", false);
+        mapper = new RoleAuthorityMapper(auditLog);
+        ReflectionTestUtils.setField(mapper, "authorityPrefix", "ROLE_");
+        ReflectionTestUtils.setField(mapper, "ignoredRolePrefixes", new String[] {"default-", "offline_", "uma_"});
+        ReflectionTestUtils.setField(mapper, "defaultRole", "USER");
+        ReflectionTestUtils.setField(mapper, "clientId", CLIENT_ID);
+
+        // Shaped like a decoded token: fresh lists per token, same role combination every time
+        claims = Map.of(
+            "preferred_username", "alice",
+            "realm_access", Map.of("roles", new ArrayList<>(List.of(
+                "default-roles-multi-app-realm", "offline_access", "uma_authorization",
+                "user", "report_user", "file_user"))),
+            "resource_access", Map.of(CLIENT_ID, Map.of("roles", new ArrayList<>(List.of("viewer")))));
+    }
+
+    @Benchmark
+    public Collection<GrantedAuthority> cachedMapper() {
+        return mapper.map(claims);
+    }
+
+    @Benchmark
+    public Collection<GrantedAuthority> streamMapping() {
+        return previousMapping(claims);
+    }
+
+    /** The JWT authorities converter as it was before RoleAuthorityMapper, minus its logging. */
+    @SuppressWarnings("unchecked")
+    private static Collection<GrantedAuthority> previousMapping(Map<String, Object> claims) {
+        Set<GrantedAuthority> authorities = new HashSet<>();
+        Map<String, Object> realmAccess = (Map<String, Object>) claims.get("realm_access");
+        if (realmAccess != null && realmAccess.get("roles") != null) {
+            List<String> roles = (List<String>) realmAccess.get("roles");
+            roles.stream()
+                .filter(role -> !role.startsWith("default-")
+                    && !role.startsWith("offline_")
+                    && !role.startsWith("uma_"))
+                .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
+                .forEach(authorities::add);
+        }
+        Map<String, Object> resourceAccess = (Map<String, Object>) claims.get("resource_access");
+        if (resourceAccess != null) {
+            Object clientRolesObj = resourceAccess.get(CLIENT_ID);
+            if (clientRolesObj instanceof Map) {
+                Object rolesObj = ((Map<String, Object>) clientRolesObj).get("roles");
+                if (rolesObj instanceof List) {
+                    ((List<String>) rolesObj).stream()
+                        .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
+                        .forEach(authorities::add);
+                }
+            }
+        }
+        if (authorities.isEmpty()) {
+            authorities.add(new SimpleGrantedAuthority("ROLE_USER"));
+        }
+        return new ArrayList<>(authorities);
+    }
+}
@@ -0,0 +1,167 @@
+package com.landing.app.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.headerDoesNotExist;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * {@link ServiceTokenManager} against a stand-in token endpoint, and the
+ * interceptor it hands to the backend client.
+ */
+class ServiceTokenManagerTest {
+
+    private static final String REPORTS = "report-generation-app";
+    private static final String FILES = "file-upload-app";
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private final Queue<String> forms = new ConcurrentLinkedQueue<>();
+    private volatile int status = 200;
+    private HttpServer tokenEndpoint;
+    private ServiceTokenManager manager;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        tokenEndpoint = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        tokenEndpoint.createContext("/token", this::issueToken);
+        tokenEndpoint.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        tokenEndpoint.start();
+
+        manager = new ServiceTokenManager(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(manager, "tokenUri",
+            "http://localhost:" + tokenEndpoint.getAddress().getPort() + "/token");
+        ReflectionTestUtils.setField(manager, "clientId", "landing-page-client");
+        ReflectionTestUtils.setField(manager, "clientSecret", "secret");
+        ReflectionTestUtils.setField(manager, "audiences", List.of());
+        ReflectionTestUtils.setField(manager, "refreshBeforeExpirySeconds", 60L);
+        ReflectionTestUtils.setField(manager, "retrySeconds", 5L);
+        ReflectionTestUtils.setField(manager, "requestTimeoutMillis", 2000L);
+        manager.afterPropertiesSet();
+    }
+
+    @AfterEach
+    void tearDown() {
+        manager.destroy();
+        tokenEndpoint.stop(0);
+    }
+
+    @Test
+    void concurrentCallersShareOneFetchAndThenTheCache() throws Exception {
+        List<String> tokens;
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<CompletableFuture<String>> calls = IntStream.range(0, 16)
+                .mapToObj(i -> CompletableFuture.supplyAsync(() -> manager.token(REPORTS), callers))
+                .toList();
+            tokens = calls.stream().map(CompletableFuture::join).toList();
+        }
+
+        assertThat(tokens).containsOnly("token-1");
+        assertThat(manager.token(REPORTS)).isEqualTo("token-1");
+        assertThat(requests.get()).isEqualTo(1);
+    }
+
+    @Test
+    void fetchesOneTokenPerAudience() {
+        String reports = manager.token(REPORTS);
+        String files = manager.token(FILES);
+
+        assertThat(reports).isNotEqualTo(files);
+        assertThat(forms).hasSize(2)
+            .allSatisfy(form -> assertThat(form).contains("grant_type=client_credentials"))
+            .anySatisfy(form -> assertThat(form).contains("scope=" + REPORTS))
+            .anySatisfy(form -> assertThat(form).contains("scope=" + FILES));
+    }
+
+    @Test
+    void fetchesAgainAfterTokenWasInvalidated() {
+        String rejected = manager.token(REPORTS);
+
+        manager.invalidate(REPORTS, rejected);
+
+        assertThat(manager.token(REPORTS)).isNotEqualTo(rejected);
+        assertThat(requests.get()).isEqualTo(2);
+    }
+
+    @Test
+    void reportsFailedFetch() {
+        status = 401;
+
+        assertThatThrownBy(() -> manager.token(REPORTS))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining(REPORTS);
+    }
+
+    @Test
+    void interceptorOnlyAuthenticatesUncredentialedCallsToItsBackend() {
+        RestTemplate restTemplate = new RestTemplate();
+        restTemplate.getInterceptors().add(manager.interceptor("http://reports", REPORTS));
+        MockRestServiceServer backend = MockRestServiceServer.bindTo(restTemplate).build();
+        backend.expect(requestTo("http://reports/api/reports"))
+            .andExpect(header(HttpHeaders.AUTHORIZATION, "Bearer token-1"))
+            .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+        backend.expect(requestTo("http://reports/api/reports"))
+            .andExpect(header(HttpHeaders.AUTHORIZATION, "Bearer user-token"))
+            .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+        backend.expect(requestTo("http://files/api/files"))
+            .andExpect(headerDoesNotExist(HttpHeaders.AUTHORIZATION))
+            .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+
+        restTemplate.getForObject("http://reports/api/reports", String.class);
+        HttpHeaders relayed = new HttpHeaders();
+        relayed.setBearerAuth("user-token");
+        restTemplate.exchange("http://reports/api/reports", HttpMethod.GET, new HttpEntity<>(relayed), String.class);
+        restTemplate.getForObject("http://files/api/files", String.class);
+
+        backend.verify();
+        assertThat(requests.get()).isEqualTo(1);
+    }
+
+    private void issueToken(HttpExchange exchange) throws IOException {
+        forms.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+        int issued = requests.incrementAndGet();
+        try {
+            // Long enough for concurrent callers to arrive while the fetch is in flight
+            Thread.sleep(100);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        byte[] body = ("{\"access_token\":\"token-" + issued + "\",\"expires_in\":300,\"token_type\":\"Bearer\"}")
+            .getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
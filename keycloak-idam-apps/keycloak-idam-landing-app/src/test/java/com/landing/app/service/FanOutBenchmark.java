@@ -0,0 +1,77 @@
+package com.landing.app.service;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.tracing.Tracer;
+
+/**
+ * Latency of the per-user role lookups in {@code getAllUsers}: {@link FanOut#map}
+ * against the sequential loop it replaced, with a sleep standing in for one
+ * admin API round trip.
+ *
+ * {@code mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+ * -Dexec.args="-cp %classpath org.openjdk.jmh.Main FanOutBenchmark"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FanOutBenchmark {
+
+    @Param({"10", "50"})
+    private int users;
+
+    @Param({"5"})
+    private long roundTripMillis;
+
+    @Param({"8"})
+    private int maxConcurrency;
+
+    private FanOut fanOut;
+    private List<Integer> ids;
+
+    @Setup
+    public void setUp() {
+        fanOut = new FanOut(new StaticListableBeanFactory().getBeanProvider(Tracer.class));
+        ReflectionTestUtils.setField(fanOut, "maxConcurrency", maxConcurrency);
+        ReflectionTestUtils.setField(fanOut, "timeoutSeconds", 30L);
+        ids = IntStream.range(0, users).boxed().toList();
+    }
+
+    @Benchmark
+    public List<Integer> fanOut() {
+        return fanOut.map(ids, this::lookupRoles);
+    }
+
+    @Benchmark
+    public List<Integer> sequential() {
+        return ids.stream().map(this::lookupRoles).toList();
+    }
+
+    private Integer lookupRoles(Integer id) {
+        try {
+            Thread.sleep(roundTripMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return id;
+    }
+}
@@ -0,0 +1,66 @@
+package com.landing.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.tracing.Tracer;
+
+class FanOutTest {
+
+    private static final int MAX_CONCURRENCY = 3;
+
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger peak = new AtomicInteger();
+    private FanOut fanOut;
+
+    @BeforeEach
+    void setUp() {
+        fanOut = new FanOut(new StaticListableBeanFactory().getBeanProvider(Tracer.class));
+        ReflectionTestUtils.setField(fanOut, "maxConcurrency", MAX_CONCURRENCY);
+        ReflectionTestUtils.setField(fanOut, "timeoutSeconds", 10L);
+    }
+
+    @Test
+    void boundsSubtasksOfOneScope() {
+        List<Integer> results = fanOut.map(range(20), this::call);
+
+        assertThat(results).isEqualTo(range(20));
+        assertThat(peak.get()).isLessThanOrEqualTo(MAX_CONCURRENCY);
+    }
+
+    @Test
+    void nestedScopesShareTheOperationBound() {
+        // Every outer subtask fans out again, as createUser does for its role assignment
+        List<Integer> results = fanOut.map(range(MAX_CONCURRENCY * 2), outer ->
+            fanOut.map(range(5), inner -> call(outer * 10 + inner)).stream().mapToInt(Integer::intValue).sum());
+
+        assertThat(results).hasSize(MAX_CONCURRENCY * 2);
+        assertThat(results.get(1)).isEqualTo(10 + 11 + 12 + 13 + 14);
+        assertThat(peak.get()).isLessThanOrEqualTo(MAX_CONCURRENCY);
+    }
+
+    private int call(int value) {
+        int now = running.incrementAndGet();
+        peak.accumulateAndGet(now, Math::max);
+        try {
+            Thread.sleep(5);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            running.decrementAndGet();
+        }
+        return value;
+    }
+
+    private static List<Integer> range(int size) {
+        return IntStream.range(0, size).boxed().toList();
+    }
+}
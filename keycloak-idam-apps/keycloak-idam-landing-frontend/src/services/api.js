@@ -54,4 +54,9 @@ export const adminApi = {
   getAllRoles: () => api.get('/admin/roles'),
 };
 
+// Dashboard API: reports and files from both backends in one round trip
+export const dashboardApi = {
+  getDashboard: (refresh = false) => api.get('/dashboard', { params: refresh ? { refresh: true } : {} }),
+};
+
 export default api;
\ No newline at end of file
@@ -0,0 +1,43 @@
+package com.loadtest.app;
+
+import com.loadtest.app.load.LoadGenerator;
+import com.loadtest.app.standin.KeycloakStandIn;
+
+/**
+ * Entry point for the offline load-test harness.
+ *
+ * <pre>
+ * java -jar keycloak-idam-load-test.jar keycloak [--port=8081] [--admin-latency-ms=40] ...
+ * java -jar keycloak-idam-load-test.jar run [--rps=50] [--duration=60] [--mix=...] ...
+ * </pre>
+ *
+ * {@code keycloak} serves a local stand-in for Keycloak on Keycloak's usual
+ * port, so the three apps start against it unchanged; {@code run} drives a
+ * request mix against the running apps. See {@link KeycloakStandIn} and
+ * {@link LoadGenerator} for their options.
+ */
+public class LoadTestApplication {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            usage();
+            return;
+        }
+        Options options = Options.parse(args, 1);
+        switch (args[0]) {
+            case "keycloak":
+                KeycloakStandIn.start(options).awaitShutdown();
+                break;
+            case "run":
+                System.exit(new LoadGenerator(options).run());
+                break;
+            default:
+                usage();
+                System.exit(2);
+        }
+    }
+
+    private static void usage() {
+        System.err.println("usage: keycloak-idam-load-test (keycloak | run) [--option=value ...]");
+    }
+}
@@ -0,0 +1,73 @@
+package com.loadtest.app;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code --name=value} command-line options. Every option has a default at
+ * its point of use, and the options actually used are listed with the
+ * results so two runs can be compared like for like.
+ */
+public final class Options {
+
+    private final Map<String, String> values;
+    private final Map<String, String> used = new LinkedHashMap<>();
+
+    private Options(Map<String, String> values) {
+        this.values = values;
+    }
+
+    public static Options parse(String[] args, int from) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (int i = from; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument " + arg);
+            }
+            int equals = arg.indexOf('=');
+            if (equals < 0) {
+                values.put(arg.substring(2), "true");
+            } else {
+                values.put(arg.substring(2, equals), arg.substring(equals + 1));
+            }
+        }
+        return new Options(values);
+    }
+
+    public String string(String name, String defaultValue) {
+        String value = values.getOrDefault(name, defaultValue);
+        if (value != null) {
+            used.put(name, value);
+        }
+        return value;
+    }
+
+    public int integer(String name, int defaultValue) {
+        return Integer.parseInt(string(name, String.valueOf(defaultValue)));
+    }
+
+    public double decimal(String name, double defaultValue) {
+        return Double.parseDouble(string(name, String.valueOf(defaultValue)));
+    }
+
+    /** Seconds, optionally suffixed {@code s}, {@code m} or {@code ms}. */
+    public Duration duration(String name, String defaultValue) {
+        String value = string(name, defaultValue).trim();
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        if (value.endsWith("s")) {
+            value = value.substring(0, value.length() - 1);
+        }
+        return Duration.ofSeconds(Long.parseLong(value));
+    }
+
+    /** The options read so far with the values in effect, defaults included. */
+    public Map<String, String> used() {
+        return used;
+    }
+}
@@ -0,0 +1,348 @@
+package com.loadtest.app.load;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import com.loadtest.app.Json;
+import com.loadtest.app.Options;
+
+/**
+ * Drives a weighted request mix against the three apps at a fixed arrival
+ * rate, authenticating each virtual user with a bearer token from the
+ * (stand-in) Keycloak token endpoint.
+ *
+ * <p>The schedule is open-loop: request {@code n} is due at
+ * {@code start + n / rps} whether or not earlier requests have finished, and
+ * latency is measured from that due time. A slow server therefore shows up
+ * as latency instead of silently lowering the offered load. Requests beyond
+ * {@code --max-in-flight} are not sent and are counted as dropped.
+ *
+ * <ul>
+ *   <li>{@code --landing}, {@code --reports}, {@code --files}, {@code --keycloak} base URLs</li>
+ *   <li>{@code --realm} (multi-app-realm), {@code --client-id} (load-test)</li>
+ *   <li>{@code --rps} (50), {@code --duration} (60s), {@code --warmup} (15s)</li>
+ *   <li>{@code --users} distinct virtual users (20)</li>
+ *   <li>{@code --mix} weights per scenario, e.g. {@code report.generate:15,file.download:35}</li>
+ *   <li>{@code --upload-bytes} (65536), {@code --report-rows} (50)</li>
+ *   <li>{@code --timeout} per request (10s), {@code --max-in-flight} (512)</li>
+ *   <li>{@code --seed} for the scenario sequence (42), so runs with the same options send the same mix</li>
+ *   <li>{@code --out} results directory, {@code --baseline} an earlier {@code summary.csv} to compare with</li>
+ *   <li>{@code --max-error-rate} above which the run exits with status 1 (0.01)</li>
+ * </ul>
+ */
+public class LoadGenerator {
+
+    private static final String DEFAULT_MIX =
+        "report.generate:15,report.list:10,file.upload:15,file.download:35,file.list:10,admin.users:15";
+    private static final String[] REPORT_FORMATS = {"PDF", "EXCEL", "CSV"};
+    private static final String BOUNDARY = "----keycloak-idam-load-test";
+
+    private final Options options;
+    private final String landingUrl;
+    private final String reportsUrl;
+    private final String filesUrl;
+    private final String tokenUrl;
+    private final String clientId;
+    private final double rps;
+    private final Duration duration;
+    private final Duration warmup;
+    private final Duration timeout;
+    private final int maxInFlight;
+    private final long seed;
+    private final double maxErrorRate;
+    private final Scenario[] schedule;
+    private final byte[] uploadBody;
+    private final String reportBodyTemplate;
+    private final List<VirtualUser> users = new ArrayList<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final HttpClient client;
+
+    public LoadGenerator(Options options) {
+        this.options = options;
+        this.landingUrl = options.string("landing", "http://localhost:8090");
+        this.reportsUrl = options.string("reports", "http://localhost:8091");
+        this.filesUrl = options.string("files", "http://localhost:8092");
+        String keycloakUrl = options.string("keycloak", "http://localhost:8081");
+        String realm = options.string("realm", "multi-app-realm");
+        this.tokenUrl = keycloakUrl + "/realms/" + realm + "/protocol/openid-connect/token";
+        this.clientId = options.string("client-id", "load-test");
+        this.rps = options.decimal("rps", 50);
+        this.duration = options.duration("duration", "60s");
+        this.warmup = options.duration("warmup", "15s");
+        this.timeout = options.duration("timeout", "10s");
+        this.maxInFlight = options.integer("max-in-flight", 512);
+        this.seed = options.integer("seed", 42);
+        this.maxErrorRate = options.decimal("max-error-rate", 0.01);
+        this.schedule = schedule(options.string("mix", DEFAULT_MIX));
+        this.uploadBody = new byte[options.integer("upload-bytes", 65536)];
+        new Random(seed).nextBytes(uploadBody);
+        this.reportBodyTemplate = reportBody(options.integer("report-rows", 50));
+        int userCount = options.integer("users", 20);
+        for (int i = 1; i <= userCount; i++) {
+            users.add(new VirtualUser(String.format("load-%04d", i)));
+        }
+        this.client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(timeout)
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+    }
+
+    /** Runs warm-up and measurement and returns the process exit status. */
+    public int run() throws Exception {
+        System.out.println("Load test with " + options.used());
+        for (VirtualUser user : users) {
+            user.token();
+            seedUpload(user);
+        }
+
+        if (!warmup.isZero()) {
+            System.out.println("Warming up for " + warmup.toSeconds() + "s");
+            drive(warmup, stats());
+        }
+        System.out.println("Measuring for " + duration.toSeconds() + "s at " + rps + " requests/s");
+        Map<Scenario, ScenarioStats> stats = stats();
+        long started = System.nanoTime();
+        drive(duration, stats);
+        Duration measured = Duration.ofNanos(System.nanoTime() - started);
+
+        Results results = new Results(stats, measured);
+        results.print();
+        String stamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        results.write(Path.of(options.string("out", "load-test-results/" + stamp)), options.used());
+        String baseline = options.string("baseline", null);
+        if (baseline != null) {
+            results.compare(Path.of(baseline));
+        }
+        return results.overallErrorRate() > maxErrorRate ? 1 : 0;
+    }
+
+    private void drive(Duration phase, Map<Scenario, ScenarioStats> stats) {
+        long intervalNanos = (long) (1_000_000_000L / rps);
+        long start = System.nanoTime();
+        long end = start + phase.toNanos();
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        // Closing the executor waits for the requests still in flight
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long n = 0; ; n++) {
+                long due = start + n * intervalNanos;
+                if (due >= end) {
+                    break;
+                }
+                long wait;
+                while ((wait = due - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                long index = sequence.getAndIncrement();
+                Scenario scenario = schedule[(int) (index % schedule.length)];
+                VirtualUser user = users.get((int) (index % users.size()));
+                ScenarioStats scenarioStats = stats.get(scenario);
+                if (!inFlight.tryAcquire()) {
+                    scenarioStats.dropped.increment();
+                    continue;
+                }
+                executor.execute(() -> {
+                    try {
+                        execute(scenario, user, index, due, scenarioStats);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+    }
+
+    private void execute(Scenario scenario, VirtualUser user, long index, long due, ScenarioStats stats) {
+        try {
+            HttpResponse<String> response = client.send(request(scenario, user, index), HttpResponse.BodyHandlers.ofString());
+            long latency = System.nanoTime() - due;
+            int status = response.statusCode();
+            if (status >= 200 && status < 300) {
+                stats.ok.increment();
+                stats.recordLatency(latency);
+                if (scenario == Scenario.FILE_UPLOAD) {
+                    user.addFile(Json.stringField(response.body(), "id"));
+                }
+            } else if (status == 429) {
+                stats.throttled.increment();
+            } else {
+                stats.errors.increment();
+            }
+        } catch (IOException e) {
+            stats.errors.increment();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stats.errors.increment();
+        }
+    }
+
+    private HttpRequest request(Scenario scenario, VirtualUser user, long index) throws IOException, InterruptedException {
+        switch (scenario) {
+            case REPORT_GENERATE:
+                String body = reportBodyTemplate
+                    .replace("%FORMAT%", REPORT_FORMATS[(int) (index % REPORT_FORMATS.length)])
+                    .replace("%TITLE%", "Load test report " + index);
+                return authorized(reportsUrl + "/api/reports/generate", user)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+            case REPORT_LIST:
+                return authorized(reportsUrl + "/api/reports", user).GET().build();
+            case FILE_UPLOAD:
+                return upload(user, index);
+            case FILE_DOWNLOAD:
+                return authorized(filesUrl + "/api/files/" + user.file(index) + "/download", user).GET().build();
+            case FILE_LIST:
+                return authorized(filesUrl + "/api/files", user).GET().build();
+            case ADMIN_USERS:
+                return authorized(landingUrl + "/api/admin/users", user).GET().build();
+            case DASHBOARD:
+                return authorized(landingUrl + "/api/dashboard?refresh=true", user).GET().build();
+            default:
+                throw new IllegalStateException("Unhandled scenario " + scenario);
+        }
+    }
+
+    private HttpRequest upload(VirtualUser user, long index) throws IOException, InterruptedException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream(uploadBody.length + 256);
+        body.write(("--" + BOUNDARY + "\r\n"
+            + "Content-Disposition: form-data; name=\"file\"; filename=\"load-" + index + ".bin\"\r\n"
+            + "Content-Type: application/octet-stream\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.write(uploadBody);
+        body.write(("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        return authorized(filesUrl + "/api/files/upload", user)
+            .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+            .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()))
+            .build();
+    }
+
+    /** Gives every user one file up front so downloads have something to fetch from the first second. */
+    private void seedUpload(VirtualUser user) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(upload(user, -1), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 201) {
+            throw new IllegalStateException("Seed upload for " + user.username + " failed with status "
+                + response.statusCode() + " from " + filesUrl);
+        }
+        user.addFile(Json.stringField(response.body(), "id"));
+    }
+
+    private HttpRequest.Builder authorized(String url, VirtualUser user) throws IOException, InterruptedException {
+        return HttpRequest.newBuilder(URI.create(url))
+            .timeout(timeout)
+            .header("Authorization", "Bearer " + user.token());
+    }
+
+    private Map<Scenario, ScenarioStats> stats() {
+        Map<Scenario, ScenarioStats> stats = new EnumMap<>(Scenario.class);
+        for (Scenario scenario : schedule) {
+            stats.computeIfAbsent(scenario, s -> new ScenarioStats());
+        }
+        return stats;
+    }
+
+    /**
+     * Expands the weights into a shuffled sequence of 100-ish scenarios that
+     * is walked in order, so every run with the same mix and seed sends the
+     * same requests in the same order.
+     */
+    private Scenario[] schedule(String mix) {
+        Map<Scenario, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            weights.put(Scenario.fromKey(parts[0]), parts.length > 1 ? Integer.parseInt(parts[1]) : 1);
+        }
+        List<Scenario> sequence = new ArrayList<>();
+        weights.forEach((scenario, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                sequence.add(scenario);
+            }
+        });
+        if (sequence.isEmpty()) {
+            throw new IllegalArgumentException("--mix has no scenarios with a positive weight");
+        }
+        Collections.shuffle(sequence, new Random(seed));
+        return sequence.toArray(new Scenario[0]);
+    }
+
+    private static String reportBody(int rows) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        for (int i = 1; i <= rows; i++) {
+            data.put("row" + i, "value " + i);
+        }
+        Map<String, Object> request = new LinkedHashMap<>();
+        request.put("reportType", "%FORMAT%");
+        request.put("title", "%TITLE%");
+        request.put("description", "Generated by the load test");
+        request.put("data", data);
+        return Json.write(request);
+    }
+
+    /** A load-test user with its own token and the files it has uploaded. */
+    private final class VirtualUser {
+
+        private final String username;
+        private final List<String> files = new CopyOnWriteArrayList<>();
+        private String token;
+        private long refreshAtNanos;
+
+        VirtualUser(String username) {
+            this.username = username;
+        }
+
+        /** The current token, fetched again once it is within 30 seconds of expiring. */
+        synchronized String token() throws IOException, InterruptedException {
+            if (token == null || System.nanoTime() >= refreshAtNanos) {
+                String form = "grant_type=password&client_id=" + URLEncoder.encode(clientId, StandardCharsets.UTF_8)
+                    + "&username=" + URLEncoder.encode(username, StandardCharsets.UTF_8) + "&password=load-test";
+                HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(tokenUrl))
+                    .timeout(timeout)
+                    .header("Content-Type", "application/x-www-form-urlencoded")
+                    .POST(HttpRequest.BodyPublishers.ofString(form))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+                String accessToken = Json.stringField(response.body(), "access_token");
+                if (response.statusCode() != 200 || accessToken == null) {
+                    throw new IOException("Token request for " + username + " failed with status "
+                        + response.statusCode() + " from " + tokenUrl);
+                }
+                long expiresIn = Long.parseLong(response.body().replaceAll("(?s).*\"expires_in\"\\s*:\\s*(\\d+).*", "$1"));
+                token = accessToken;
+                refreshAtNanos = System.nanoTime() + TimeUnit.SECONDS.toNanos(Math.max(0, expiresIn - 30));
+            }
+            return token;
+        }
+
+        void addFile(String id) {
+            if (id != null) {
+                files.add(id);
+            }
+        }
+
+        String file(long index) {
+            return files.get((int) (index % files.size()));
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.loadtest.app.load;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Turns the recorded stats into a console table, {@code summary.csv} and
+ * {@code run.properties}, and optionally compares them with the
+ * {@code summary.csv} of an earlier run.
+ */
+class Results {
+
+    private static final String HEADER =
+        "scenario,requests,ok,throttled,errors,dropped,throughput_rps,error_rate,p50_ms,p90_ms,p99_ms,p999_ms,max_ms";
+
+    private final List<Row> rows = new ArrayList<>();
+
+    Results(Map<Scenario, ScenarioStats> stats, Duration measured) {
+        double seconds = measured.toNanos() / 1_000_000_000.0;
+        ScenarioStats total = new ScenarioStats();
+        for (Map.Entry<Scenario, ScenarioStats> entry : stats.entrySet()) {
+            rows.add(new Row(entry.getKey().key(), entry.getValue(), seconds));
+            entry.getValue().addTo(total);
+        }
+        rows.add(new Row("all", total, seconds));
+    }
+
+    double overallErrorRate() {
+        return rows.get(rows.size() - 1).errorRate;
+    }
+
+    void print() {
+        System.out.printf(Locale.ROOT, "%n%-16s %8s %8s %9s %7s %8s %10s %7s %9s %9s %9s %9s %9s%n",
+            "scenario", "requests", "ok", "throttled", "errors", "dropped", "rps", "err%",
+            "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Row row : rows) {
+            System.out.printf(Locale.ROOT, "%-16s %8d %8d %9d %7d %8d %10.1f %7.2f %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                row.scenario, row.requests, row.ok, row.throttled, row.errors, row.dropped, row.throughput,
+                row.errorRate * 100, row.p50, row.p90, row.p99, row.p999, row.max);
+        }
+    }
+
+    void write(Path directory, Map<String, String> options) throws IOException {
+        Files.createDirectories(directory);
+        try (Writer out = Files.newBufferedWriter(directory.resolve("summary.csv"), StandardCharsets.UTF_8)) {
+            out.write(HEADER);
+            out.write('\n');
+            for (Row row : rows) {
+                out.write(row.csv());
+                out.write('\n');
+            }
+        }
+        Properties run = new Properties();
+        options.forEach((name, value) -> run.setProperty("option." + name, value));
+        run.setProperty("java.version", System.getProperty("java.version"));
+        run.setProperty("os.name", System.getProperty("os.name"));
+        run.setProperty("processors", String.valueOf(Runtime.getRuntime().availableProcessors()));
+        try (Writer out = Files.newBufferedWriter(directory.resolve("run.properties"), StandardCharsets.UTF_8)) {
+            run.store(out, "keycloak-idam load test");
+        }
+        System.out.println("\nResults written to " + directory.toAbsolutePath());
+    }
+
+    /** Prints the change in throughput, p50, p99 and error rate against an earlier summary. */
+    void compare(Path baseline) throws IOException {
+        Map<String, String[]> previous = new LinkedHashMap<>();
+        List<String> lines = Files.readAllLines(baseline, StandardCharsets.UTF_8);
+        for (String line : lines.subList(1, lines.size())) {
+            String[] columns = line.split(",");
+            previous.put(columns[0], columns);
+        }
+        System.out.printf(Locale.ROOT, "%nCompared with %s%n%-16s %12s %12s %12s %12s%n", baseline,
+            "scenario", "rps", "p50", "p99", "err% (pts)");
+        for (Row row : rows) {
+            String[] before = previous.get(row.scenario);
+            if (before == null) {
+                continue;
+            }
+            System.out.printf(Locale.ROOT, "%-16s %12s %12s %12s %+12.2f%n", row.scenario,
+                change(Double.parseDouble(before[6]), row.throughput),
+                change(Double.parseDouble(before[8]), row.p50),
+                change(Double.parseDouble(before[10]), row.p99),
+                (row.errorRate - Double.parseDouble(before[7])) * 100);
+        }
+    }
+
+    private static String change(double before, double after) {
+        if (before == 0) {
+            return "n/a";
+        }
+        return String.format(Locale.ROOT, "%+.1f%%", (after - before) / before * 100);
+    }
+
+    private static final class Row {
+
+        final String scenario;
+        final long requests;
+        final long ok;
+        final long throttled;
+        final long errors;
+        final long dropped;
+        final double throughput;
+        final double errorRate;
+        final double p50;
+        final double p90;
+        final double p99;
+        final double p999;
+        final double max;
+
+        Row(String scenario, ScenarioStats stats, double seconds) {
+            long[] latencies = stats.sortedLatencies();
+            this.scenario = scenario;
+            this.requests = stats.requests();
+            this.ok = stats.ok.sum();
+            this.throttled = stats.throttled.sum();
+            this.errors = stats.errors.sum();
+            this.dropped = stats.dropped.sum();
+            this.throughput = seconds == 0 ? 0 : ok / seconds;
+            this.errorRate = stats.errorRate();
+            this.p50 = ScenarioStats.percentileMillis(latencies, 50);
+            this.p90 = ScenarioStats.percentileMillis(latencies, 90);
+            this.p99 = ScenarioStats.percentileMillis(latencies, 99);
+            this.p999 = ScenarioStats.percentileMillis(latencies, 99.9);
+            this.max = ScenarioStats.percentileMillis(latencies, 100);
+        }
+
+        String csv() {
+            return String.format(Locale.ROOT, "%s,%d,%d,%d,%d,%d,%.2f,%.5f,%.3f,%.3f,%.3f,%.3f,%.3f",
+                scenario, requests, ok, throttled, errors, dropped, throughput, errorRate, p50, p90, p99, p999, max);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.loadtest.app.load;
+
+/**
+ * The request types in the mix, named as they appear in {@code --mix} and
+ * in the results.
+ */
+enum Scenario {
+
+    REPORT_GENERATE("report.generate"),
+    REPORT_LIST("report.list"),
+    FILE_UPLOAD("file.upload"),
+    FILE_DOWNLOAD("file.download"),
+    FILE_LIST("file.list"),
+    ADMIN_USERS("admin.users"),
+    DASHBOARD("landing.dashboard");
+
+    private final String key;
+
+    Scenario(String key) {
+        this.key = key;
+    }
+
+    String key() {
+        return key;
+    }
+
+    static Scenario fromKey(String key) {
+        for (Scenario scenario : values()) {
+            if (scenario.key.equals(key)) {
+                return scenario;
+            }
+        }
+        throw new IllegalArgumentException("Unknown scenario " + key);
+    }
+}
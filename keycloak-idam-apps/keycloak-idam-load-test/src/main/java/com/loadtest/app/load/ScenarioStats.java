@@ -0,0 +1,62 @@
+package com.loadtest.app.load;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Outcome counts and successful-response latencies for one scenario.
+ * Latencies are kept in full and sorted once at the end, so percentiles are
+ * exact rather than bucketed.
+ */
+class ScenarioStats {
+
+    final LongAdder ok = new LongAdder();
+    final LongAdder throttled = new LongAdder();
+    final LongAdder errors = new LongAdder();
+    final LongAdder dropped = new LongAdder();
+
+    private long[] latencies = new long[1024];
+    private int count;
+
+    synchronized void recordLatency(long nanos) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = nanos;
+    }
+
+    long requests() {
+        return ok.sum() + throttled.sum() + errors.sum() + dropped.sum();
+    }
+
+    double errorRate() {
+        long requests = requests();
+        return requests == 0 ? 0 : (double) (errors.sum() + dropped.sum()) / requests;
+    }
+
+    /** Latencies in ascending order, in nanoseconds. */
+    synchronized long[] sortedLatencies() {
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    /** Nearest-rank percentile in milliseconds, or 0 with no samples. */
+    static double percentileMillis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100 * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))] / 1_000_000.0;
+    }
+
+    void addTo(ScenarioStats total) {
+        total.ok.add(ok.sum());
+        total.throttled.add(throttled.sum());
+        total.errors.add(errors.sum());
+        total.dropped.add(dropped.sum());
+        for (long latency : sortedLatencies()) {
+            total.recordLatency(latency);
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package com.loadtest.app.standin;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.loadtest.app.Json;
+import com.loadtest.app.Options;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Local stand-in for the parts of Keycloak the apps talk to: OIDC discovery,
+ * JWKS, the token endpoint and the admin REST calls made by the landing
+ * app. Any realm name is served, any credentials are accepted, and every
+ * token carries the configured realm roles.
+ *
+ * <ul>
+ *   <li>{@code --port} (8081, Keycloak's port in the apps' configuration)</li>
+ *   <li>{@code --roles} realm roles in every token (user,report_user,file_user,admin)</li>
+ *   <li>{@code --token-lifetime} (3600s)</li>
+ *   <li>{@code --users} users returned by the admin user listing (50)</li>
+ *   <li>{@code --admin-latency-ms} and {@code --admin-jitter-ms} added to every
+ *       admin REST call (40, 20); {@code --token-latency-ms} likewise for the
+ *       token endpoint (0)</li>
+ * </ul>
+ */
+public class KeycloakStandIn {
+
+    private static final Pattern REALM_PATH = Pattern.compile("^/realms/([^/]+)(/.*)$");
+    private static final Pattern ADMIN_PATH = Pattern.compile("^/admin/realms/([^/]+)(/.*)?$");
+    private static final Pattern USER_PATH = Pattern.compile("^/users/([^/]+)(/.*)?$");
+
+    private final HttpServer server;
+    private final TokenIssuer tokenIssuer;
+    private final List<String> roles;
+    private final long adminLatencyMillis;
+    private final long adminJitterMillis;
+    private final long tokenLatencyMillis;
+    private final Map<String, Map<String, Object>> users = new ConcurrentSkipListMap<>();
+    private final CountDownLatch stopped = new CountDownLatch(1);
+
+    private KeycloakStandIn(Options options) throws Exception {
+        this.roles = Arrays.asList(options.string("roles", "user,report_user,file_user,admin").split(","));
+        this.tokenIssuer = new TokenIssuer(options.duration("token-lifetime", "3600s").toSeconds());
+        this.adminLatencyMillis = options.integer("admin-latency-ms", 40);
+        this.adminJitterMillis = options.integer("admin-jitter-ms", 20);
+        this.tokenLatencyMillis = options.integer("token-latency-ms", 0);
+        int seededUsers = options.integer("users", 50);
+        for (int i = 1; i <= seededUsers; i++) {
+            addUser(String.format("user-%04d", i));
+        }
+
+        int port = options.integer("port", 8081);
+        this.server = HttpServer.create(new InetSocketAddress(port), 1024);
+        this.server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        this.server.createContext("/", this::handle);
+    }
+
+    public static KeycloakStandIn start(Options options) throws Exception {
+        KeycloakStandIn standIn = new KeycloakStandIn(options);
+        standIn.server.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(standIn::stop));
+        System.out.println("Keycloak stand-in listening on port " + standIn.server.getAddress().getPort()
+            + " with " + options.used());
+        return standIn;
+    }
+
+    public void awaitShutdown() throws InterruptedException {
+        stopped.await();
+    }
+
+    public void stop() {
+        server.stop(0);
+        stopped.countDown();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String path = exchange.getRequestURI().getPath();
+            Matcher realm = REALM_PATH.matcher(path);
+            Matcher admin = ADMIN_PATH.matcher(path);
+            if (realm.matches()) {
+                handleRealm(exchange, realm.group(1), realm.group(2));
+            } else if (admin.matches()) {
+                pause(adminLatencyMillis, adminJitterMillis);
+                handleAdmin(exchange, admin.group(1), admin.group(2) == null ? "" : admin.group(2));
+            } else {
+                send(exchange, 404, null);
+            }
+        } catch (RuntimeException e) {
+            send(exchange, 500, Json.write(Map.of("error", String.valueOf(e))));
+        }
+    }
+
+    private void handleRealm(HttpExchange exchange, String realm, String path) throws IOException {
+        String issuer = "http://" + exchange.getRequestHeaders().getFirst("Host") + "/realms/" + realm;
+        switch (path) {
+            case "/.well-known/openid-configuration":
+                send(exchange, 200, Json.write(discovery(issuer)));
+                break;
+            case "/protocol/openid-connect/certs":
+                send(exchange, 200, tokenIssuer.jwks());
+                break;
+            case "/protocol/openid-connect/token":
+                pause(tokenLatencyMillis, 0);
+                Map<String, String> form = form(exchange.getRequestBody());
+                String clientId = form.getOrDefault("client_id", "load-test");
+                String username = form.getOrDefault("username", "service-account-" + clientId);
+                Map<String, Object> response = new LinkedHashMap<>();
+                response.put("access_token", tokenIssuer.accessToken(issuer, clientId, username, roles));
+                response.put("expires_in", tokenIssuer.lifetimeSeconds());
+                response.put("refresh_expires_in", 0);
+                response.put("token_type", "Bearer");
+                response.put("not-before-policy", 0);
+                response.put("scope", "openid profile email roles");
+                send(exchange, 200, Json.write(response));
+                break;
+            default:
+                send(exchange, 404, null);
+        }
+    }
+
+    private void handleAdmin(HttpExchange exchange, String realm, String path) throws IOException {
+        String method = exchange.getRequestMethod();
+        Map<String, String> query = query(exchange.getRequestURI().getRawQuery());
+        if (path.equals("/users") && method.equals("GET")) {
+            send(exchange, 200, Json.write(listUsers(query)));
+        } else if (path.equals("/users") && method.equals("POST")) {
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            String username = Json.stringField(body, "username");
+            Map<String, Object> user = addUser(username == null ? "user-" + UUID.randomUUID() : username);
+            exchange.getResponseHeaders().add("Location", "http://" + exchange.getRequestHeaders().getFirst("Host")
+                + "/admin/realms/" + realm + "/users/" + user.get("id"));
+            send(exchange, 201, null);
+        } else if (path.equals("/roles") && method.equals("GET")) {
+            send(exchange, 200, Json.write(roleRepresentations(realm, roles)));
+        } else if (path.startsWith("/roles/") && method.equals("GET")) {
+            String name = URLDecoder.decode(path.substring("/roles/".length()), StandardCharsets.UTF_8);
+            send(exchange, 200, Json.write(roleRepresentations(realm, List.of(name)).get(0)));
+        } else {
+            Matcher user = USER_PATH.matcher(path);
+            if (!user.matches()) {
+                send(exchange, method.equals("GET") ? 404 : 204, null);
+                return;
+            }
+            String id = user.group(1);
+            String rest = user.group(2) == null ? "" : user.group(2);
+            if (rest.isEmpty() && method.equals("GET")) {
+                Map<String, Object> found = users.get(id);
+                send(exchange, found == null ? 404 : 200, found == null ? null : Json.write(found));
+            } else if (rest.isEmpty() && method.equals("DELETE")) {
+                send(exchange, users.remove(id) == null ? 404 : 204, null);
+            } else if (rest.startsWith("/role-mappings/realm") && method.equals("GET")) {
+                send(exchange, 200, Json.write(roleRepresentations(realm, roles)));
+            } else {
+                // Updates, password resets and role changes are accepted and ignored
+                send(exchange, 204, null);
+            }
+        }
+    }
+
+    private List<Map<String, Object>> listUsers(Map<String, String> query) {
+        String username = query.getOrDefault("username", query.get("search"));
+        if (username == null) {
+            int first = Integer.parseInt(query.getOrDefault("first", "0"));
+            int max = Integer.parseInt(query.getOrDefault("max", "100"));
+            return new ArrayList<>(users.values()).subList(Math.min(first, users.size()),
+                Math.min(first + max, users.size()));
+        }
+        for (Map<String, Object> user : users.values()) {
+            if (username.equals(user.get("username"))) {
+                return List.of(user);
+            }
+        }
+        // Users that only exist in tokens, such as the load generator's, are created on first lookup
+        return List.of(addUser(username));
+    }
+
+    private Map<String, Object> addUser(String username) {
+        Map<String, Object> user = new LinkedHashMap<>();
+        String id = UUID.nameUUIDFromBytes(username.getBytes(StandardCharsets.UTF_8)).toString();
+        user.put("id", id);
+        user.put("username", username);
+        user.put("email", username + "@example.invalid");
+        user.put("firstName", username);
+        user.put("lastName", "Load");
+        user.put("enabled", true);
+        user.put("emailVerified", true);
+        user.put("createdTimestamp", System.currentTimeMillis());
+        Map<String, Object> existing = users.putIfAbsent(id, user);
+        return existing != null ? existing : user;
+    }
+
+    private static List<Map<String, Object>> roleRepresentations(String realm, List<String> names) {
+        List<Map<String, Object>> representations = new ArrayList<>(names.size());
+        for (String name : names) {
+            Map<String, Object> role = new LinkedHashMap<>();
+            role.put("id", UUID.nameUUIDFromBytes(name.getBytes(StandardCharsets.UTF_8)).toString());
+            role.put("name", name);
+            role.put("composite", false);
+            role.put("clientRole", false);
+            role.put("containerId", realm);
+            representations.add(role);
+        }
+        return representations;
+    }
+
+    private static Map<String, Object> discovery(String issuer) {
+        String endpoints = issuer + "/protocol/openid-connect";
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("issuer", issuer);
+        document.put("authorization_endpoint", endpoints + "/auth");
+        document.put("token_endpoint", endpoints + "/token");
+        document.put("userinfo_endpoint", endpoints + "/userinfo");
+        document.put("end_session_endpoint", endpoints + "/logout");
+        document.put("jwks_uri", endpoints + "/certs");
+        document.put("grant_types_supported", List.of("authorization_code", "password", "client_credentials"));
+        document.put("response_types_supported", List.of("code"));
+        document.put("subject_types_supported", List.of("public"));
+        document.put("id_token_signing_alg_values_supported", List.of("RS256"));
+        document.put("scopes_supported", List.of("openid", "profile", "email", "roles"));
+        document.put("token_endpoint_auth_methods_supported", List.of("client_secret_basic", "client_secret_post"));
+        return document;
+    }
+
+    private static void pause(long millis, long jitterMillis) {
+        long delay = millis;
+        if (jitterMillis > 0) {
+            delay += ThreadLocalRandom.current().nextLong(-jitterMillis, jitterMillis + 1);
+        }
+        if (delay > 0) {
+            try {
+                Thread.sleep(Duration.ofMillis(delay));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static Map<String, String> form(InputStream body) throws IOException {
+        return query(new String(body.readAllBytes(), StandardCharsets.UTF_8));
+    }
+
+    private static Map<String, String> query(String encoded) {
+        Map<String, String> values = new HashMap<>();
+        if (encoded == null || encoded.isEmpty()) {
+            return values;
+        }
+        for (String pair : encoded.split("&")) {
+            int equals = pair.indexOf('=');
+            String name = equals < 0 ? pair : pair.substring(0, equals);
+            String value = equals < 0 ? "" : pair.substring(equals + 1);
+            values.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return values;
+    }
+
+    private static void send(HttpExchange exchange, int status, String json) throws IOException {
+        if (json == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.loadtest.app.standin;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import com.loadtest.app.Json;
+
+/**
+ * Signs Keycloak-shaped RS256 access tokens with a key generated at start-up
+ * and publishes the public half as a JWKS document.
+ */
+class TokenIssuer {
+
+    private static final Base64.Encoder BASE64URL = Base64.getUrlEncoder().withoutPadding();
+
+    private final KeyPair keyPair;
+    private final String keyId = UUID.randomUUID().toString();
+    private final long lifetimeSeconds;
+
+    TokenIssuer(long lifetimeSeconds) throws GeneralSecurityException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        this.keyPair = generator.generateKeyPair();
+        this.lifetimeSeconds = lifetimeSeconds;
+    }
+
+    long lifetimeSeconds() {
+        return lifetimeSeconds;
+    }
+
+    String jwks() {
+        RSAPublicKey publicKey = (RSAPublicKey) keyPair.getPublic();
+        Map<String, Object> key = new LinkedHashMap<>();
+        key.put("kid", keyId);
+        key.put("kty", "RSA");
+        key.put("alg", "RS256");
+        key.put("use", "sig");
+        key.put("n", BASE64URL.encodeToString(unsigned(publicKey.getModulus())));
+        key.put("e", BASE64URL.encodeToString(unsigned(publicKey.getPublicExponent())));
+        return Json.write(Map.of("keys", List.of(key)));
+    }
+
+    String accessToken(String issuer, String clientId, String username, List<String> roles) {
+        long now = Instant.now().getEpochSecond();
+        Map<String, Object> claims = new LinkedHashMap<>();
+        claims.put("exp", now + lifetimeSeconds);
+        claims.put("iat", now);
+        claims.put("jti", UUID.randomUUID().toString());
+        claims.put("iss", issuer);
+        claims.put("aud", "account");
+        claims.put("sub", UUID.nameUUIDFromBytes(username.getBytes(StandardCharsets.UTF_8)).toString());
+        claims.put("typ", "Bearer");
+        claims.put("azp", clientId);
+        claims.put("scope", "openid profile email roles");
+        claims.put("realm_access", Map.of("roles", roles));
+        claims.put("preferred_username", username);
+        claims.put("email", username + "@example.invalid");
+        claims.put("given_name", username);
+        claims.put("family_name", "Load");
+        return sign(claims);
+    }
+
+    private String sign(Map<String, Object> claims) {
+        Map<String, Object> header = new LinkedHashMap<>();
+        header.put("alg", "RS256");
+        header.put("typ", "JWT");
+        header.put("kid", keyId);
+        String signingInput = encode(Json.write(header)) + "." + encode(Json.write(claims));
+        try {
+            Signature signature = Signature.getInstance("SHA256withRSA");
+            signature.initSign(keyPair.getPrivate());
+            signature.update(signingInput.getBytes(StandardCharsets.US_ASCII));
+            return signingInput + "." + BASE64URL.encodeToString(signature.sign());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not sign token", e);
+        }
+    }
+
+    private static String encode(String json) {
+        return BASE64URL.encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Big-endian magnitude without the sign byte {@link BigInteger#toByteArray()} may add. */
+    private static byte[] unsigned(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        return bytes[0] == 0 && bytes.length > 1 ? Arrays.copyOfRange(bytes, 1, bytes.length) : bytes;
+    }
+}
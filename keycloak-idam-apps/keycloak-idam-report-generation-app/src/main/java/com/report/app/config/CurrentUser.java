@@ -0,0 +1,27 @@
+package com.report.app.config;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.core.oidc.user.OidcUser;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+/**
+ * Username of the caller, whether they signed in through the browser or sent
+ * a bearer token. Both carry Keycloak's {@code preferred_username} claim.
+ */
+public final class CurrentUser {
+
+    private CurrentUser() {
+    }
+
+    public static String username(Authentication authentication) {
+        Object principal = authentication.getPrincipal();
+        if (principal instanceof OidcUser) {
+            return ((OidcUser) principal).getPreferredUsername();
+        }
+        if (principal instanceof Jwt) {
+            String username = ((Jwt) principal).getClaimAsString("preferred_username");
+            return username != null ? username : ((Jwt) principal).getSubject();
+        }
+        return authentication.getName();
+    }
+}
@@ -0,0 +1,163 @@
+package com.report.app.config;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.springframework.security.core.GrantedAuthority;
+
+/**
+ * Canonical, interned authority for the names the apps check and grant: those
+ * in compiled {@code @PreAuthorize} expressions and those
+ * {@link RoleAuthorityMapper} hands out. The first {@value #MAX_INDEXED} of
+ * them also get a bit position, so a set of them can be held as a single
+ * {@code long}.
+ *
+ * Any other authority, such as a scope or an authentication factor, is only
+ * looked up, never interned, so it takes no bit position and does not grow the
+ * maps. Both maps are capped besides.
+ *
+ * Bit positions are local to the running JVM; only authority names are ever
+ * serialized.
+ */
+public final class IndexedAuthority implements GrantedAuthority {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final int MAX_INDEXED = 64;
+
+    private static final int MAX_INTERNED = 4096;
+    private static final int MAX_CACHED_MASKS = 4096;
+
+    private static final Map<String, IndexedAuthority> INTERNED = new ConcurrentHashMap<>();
+    private static final AtomicReferenceArray<IndexedAuthority> BY_INDEX = new AtomicReferenceArray<>(MAX_INDEXED);
+    private static final AtomicInteger NEXT_INDEX = new AtomicInteger();
+    private static final Map<Long, Collection<GrantedAuthority>> BY_MASK = new ConcurrentHashMap<>();
+
+    private final String authority;
+    private final transient int index;
+
+    private IndexedAuthority(String authority, int index) {
+        this.authority = authority;
+        this.index = index;
+    }
+
+    /**
+     * Interns {@code authority}, giving it a bit position while any are left.
+     * Past {@value #MAX_INTERNED} names a fresh, unindexed instance is returned.
+     */
+    public static IndexedAuthority of(String authority) {
+        IndexedAuthority interned = INTERNED.get(authority);
+        if (interned != null) {
+            return interned;
+        }
+        if (INTERNED.size() >= MAX_INTERNED) {
+            return new IndexedAuthority(authority, -1);
+        }
+        return INTERNED.computeIfAbsent(authority, IndexedAuthority::create);
+    }
+
+    static int internedCount() {
+        return INTERNED.size();
+    }
+
+    private static IndexedAuthority create(String authority) {
+        int index = NEXT_INDEX.getAndUpdate(next -> next < MAX_INDEXED ? next + 1 : next);
+        if (index >= MAX_INDEXED) {
+            return new IndexedAuthority(authority, -1);
+        }
+        IndexedAuthority created = new IndexedAuthority(authority, index);
+        BY_INDEX.set(index, created);
+        return created;
+    }
+
+    /**
+     * Bit mask of the given authorities. Authorities that were never interned
+     * or are beyond the indexed range contribute nothing; use
+     * {@link #isFullyIndexed} to detect them.
+     */
+    public static long mask(Collection<? extends GrantedAuthority> authorities) {
+        long mask = 0;
+        for (GrantedAuthority authority : authorities) {
+            IndexedAuthority indexed = toIndexed(authority);
+            if (indexed != null) {
+                mask |= indexed.bit();
+            }
+        }
+        return mask;
+    }
+
+    public static boolean isFullyIndexed(Collection<? extends GrantedAuthority> authorities) {
+        for (GrantedAuthority authority : authorities) {
+            IndexedAuthority indexed = toIndexed(authority);
+            if (indexed == null || indexed.index < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The shared, immutable authority collection for a bit mask.
+     */
+    public static Collection<GrantedAuthority> forMask(long mask) {
+        Collection<GrantedAuthority> authorities = BY_MASK.get(mask);
+        if (authorities == null) {
+            List<GrantedAuthority> list = new ArrayList<>(Long.bitCount(mask));
+            for (long remaining = mask; remaining != 0; remaining &= remaining - 1) {
+                list.add(BY_INDEX.get(Long.numberOfTrailingZeros(remaining)));
+            }
+            authorities = Collections.unmodifiableList(list);
+            if (BY_MASK.size() >= MAX_CACHED_MASKS) {
+                BY_MASK.clear();
+            }
+            BY_MASK.putIfAbsent(mask, authorities);
+        }
+        return authorities;
+    }
+
+    /** The interned form of {@code authority}, or {@code null} when its name was never interned. */
+    private static IndexedAuthority toIndexed(GrantedAuthority authority) {
+        if (authority instanceof IndexedAuthority) {
+            return (IndexedAuthority) authority;
+        }
+        String name = authority.getAuthority();
+        return name == null ? null : INTERNED.get(name);
+    }
+
+    public long bit() {
+        return index < 0 ? 0L : 1L << index;
+    }
+
+    @Override
+    public String getAuthority() {
+        return authority;
+    }
+
+    private Object readResolve() {
+        return of(authority);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        return o instanceof IndexedAuthority && authority.equals(((IndexedAuthority) o).authority);
+    }
+
+    @Override
+    public int hashCode() {
+        return authority.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return authority;
+    }
+}
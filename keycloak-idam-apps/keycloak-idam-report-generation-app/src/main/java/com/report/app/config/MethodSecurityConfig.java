@@ -0,0 +1,29 @@
+package com.report.app.config;
+
+import org.springframework.aop.Advisor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.security.authorization.method.AuthorizationManagerBeforeMethodInterceptor;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
+
+/**
+ * Method security with {@code @PreAuthorize} handled by
+ * {@link PrecompiledPreAuthorizeManager}. No other pre/post annotations are
+ * used in this app, so the default pre/post advisors are switched off.
+ */
+@Configuration
+@EnableMethodSecurity(prePostEnabled = false)
+public class MethodSecurityConfig {
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor preAuthorizeAdvisor(
+            @Value("${app.security.role-mapping.authority-prefix:ROLE_}") String rolePrefix,
+            @Value("${app.security.precompiled-authorization:true}") boolean precompiled) {
+        return AuthorizationManagerBeforeMethodInterceptor.preAuthorize(
+            new PrecompiledPreAuthorizeManager(rolePrefix, precompiled));
+    }
+}
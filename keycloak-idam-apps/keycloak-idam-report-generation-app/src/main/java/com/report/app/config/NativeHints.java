@@ -0,0 +1,76 @@
+package com.report.app.config;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import com.report.app.dto.ReportRequest;
+import com.report.app.dto.ReportResponse;
+import com.report.app.dto.SignedLinkResponse;
+
+/**
+ * Native-image hints that Spring's AOT processing cannot infer. POI's XSSF
+ * model is backed by XMLBeans, which loads compiled schemas from resources
+ * and instantiates the generated types by name; iText reads its standard
+ * font metrics and messages from the classpath.
+ */
+@Configuration(proxyBeanMethods = false)
+@ImportRuntimeHints(NativeHints.Registrar.class)
+@RegisterReflectionForBinding({ ReportRequest.class, ReportResponse.class, SignedLinkResponse.class })
+public class NativeHints {
+
+    /** XMLBeans types written by {@code XSSFWorkbook}: workbook, sheets, styles and document properties. */
+    private static final List<String> XMLBEANS_PACKAGES = List.of(
+        "org/openxmlformats/schemas/spreadsheetml/x2006/main",
+        "org/openxmlformats/schemas/officeDocument/x2006",
+        "org/apache/poi/schemas/ooxml/system/ooxml");
+
+    static class Registrar implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            hints.resources().registerPattern("org/apache/poi/schemas/ooxml/**/*.xsb");
+            hints.resources().registerPattern("org/apache/xmlbeans/**");
+            hints.resources().registerPattern("com/itextpdf/text/pdf/fonts/*");
+            hints.resources().registerPattern("com/itextpdf/text/l10n/**");
+
+            PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver(classLoader);
+            for (String packagePath : XMLBEANS_PACKAGES) {
+                for (String className : classesUnder(resolver, packagePath)) {
+                    hints.reflection().registerType(TypeReference.of(className),
+                        MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+                }
+            }
+        }
+
+        /**
+         * Classes in a package and its subpackages on the build classpath, so
+         * a POI upgrade that adds schema types needs no hint changes.
+         */
+        private static List<String> classesUnder(PathMatchingResourcePatternResolver resolver, String packagePath) {
+            try {
+                Resource[] resources = resolver.getResources("classpath*:" + packagePath + "/**/*.class");
+                List<String> classNames = new ArrayList<>(resources.length);
+                for (Resource resource : resources) {
+                    String url = resource.getURL().toString();
+                    int start = url.lastIndexOf(packagePath);
+                    classNames.add(url.substring(start, url.length() - ".class".length()).replace('/', '.'));
+                }
+                return classNames;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not list classes under " + packagePath, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.report.app.config;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import com.report.app.observability.RoleMappingEvent;
+
+/**
+ * Maps Keycloak role claims to Spring Security authorities for both the OIDC
+ * login and the bearer-token chains.
+ *
+ * Authorities are interned as {@link IndexedAuthority} instances, and the
+ * authority set for a given combination of realm and client roles is computed
+ * once and shared, so a repeat login or token with the same roles allocates
+ * nothing beyond the lookup key.
+ */
+@Component
+public class RoleAuthorityMapper {
+
+    private static final int MAX_CACHED_COMBINATIONS = 4096;
+
+    @Value("${app.security.role-mapping.authority-prefix:ROLE_}")
+    private String authorityPrefix;
+
+    @Value("${app.security.role-mapping.ignored-role-prefixes:default-,offline_,uma_}")
+    private String[] ignoredRolePrefixes;
+
+    @Value("${app.security.role-mapping.default-role:USER}")
+    private String defaultRole;
+
+    @Value("${app.security.role-mapping.client-id:}")
+    private String clientId;
+
+    private final Map<RoleKey, Collection<GrantedAuthority>> combinations = new ConcurrentHashMap<>();
+    private final AuthAuditLog authAuditLog;
+
+    public RoleAuthorityMapper(AuthAuditLog authAuditLog) {
+        this.authAuditLog = authAuditLog;
+    }
+
+    public Collection<GrantedAuthority> map(Map<String, Object> claims) {
+        RoleMappingEvent event = new RoleMappingEvent();
+        event.begin();
+        List<?> realmRoles = roles(claims.get("realm_access"));
+        List<?> clientRoles = clientId.isEmpty() ? null : clientRoles(claims.get("resource_access"));
+
+        RoleKey key = new RoleKey(realmRoles, clientRoles);
+        Collection<GrantedAuthority> authorities = combinations.get(key);
+        boolean cacheHit = authorities != null;
+        if (authorities == null) {
+            authorities = build(realmRoles, clientRoles);
+            if (combinations.size() >= MAX_CACHED_COMBINATIONS) {
+                combinations.clear();
+            }
+            combinations.put(key.detach(), authorities);
+            Collection<GrantedAuthority> mapped = authorities;
+            authAuditLog.record(AuthAuditLog.EventType.AUTHORITIES_MAPPED, (String) claims.get("preferred_username"),
+                authAuditLog.isVerbose()
+                    ? () -> "realm=" + realmRoles + " client=" + clientRoles + " authorities=" + mapped
+                    : () -> mapped.size() + " authorities");
+        }
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.principal = (String) claims.get("preferred_username");
+            event.realmRoles = realmRoles == null ? 0 : realmRoles.size();
+            event.clientRoles = clientRoles == null ? 0 : clientRoles.size();
+            event.authorities = authorities.size();
+            event.cacheHit = cacheHit;
+            event.commit();
+        }
+        return authorities;
+    }
+
+    public GrantedAuthority authority(String name) {
+        return IndexedAuthority.of(name);
+    }
+
+    private Collection<GrantedAuthority> build(List<?> realmRoles, List<?> clientRoles) {
+        Set<GrantedAuthority> authorities = new LinkedHashSet<>();
+        if (realmRoles != null) {
+            for (Object role : realmRoles) {
+                if (role instanceof String && !isIgnored((String) role)) {
+                    authorities.add(authority(authorityPrefix + role));
+                }
+            }
+        }
+        if (clientRoles != null) {
+            for (Object role : clientRoles) {
+                if (role instanceof String) {
+                    authorities.add(authority(authorityPrefix + role));
+                }
+            }
+        }
+        if (authorities.isEmpty()) {
+            authorities.add(authority(authorityPrefix + defaultRole));
+        }
+        return Collections.unmodifiableSet(authorities);
+    }
+
+    private boolean isIgnored(String role) {
+        for (String prefix : ignoredRolePrefixes) {
+            if (role.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<?> clientRoles(Object resourceAccess) {
+        if (resourceAccess instanceof Map) {
+            return roles(((Map<?, ?>) resourceAccess).get(clientId));
+        }
+        return null;
+    }
+
+    private static List<?> roles(Object access) {
+        if (access instanceof Map) {
+            Object roles = ((Map<?, ?>) access).get("roles");
+            if (roles instanceof List) {
+                return (List<?>) roles;
+            }
+        }
+        return null;
+    }
+
+    private static final class RoleKey {
+
+        private final List<?> realmRoles;
+        private final List<?> clientRoles;
+
+        RoleKey(List<?> realmRoles, List<?> clientRoles) {
+            this.realmRoles = realmRoles;
+            this.clientRoles = clientRoles;
+        }
+
+        /**
+         * Copies the claim lists so a cached key can never change underneath the map.
+         */
+        RoleKey detach() {
+            return new RoleKey(
+                realmRoles == null ? null : List.copyOf(realmRoles),
+                clientRoles == null ? null : List.copyOf(clientRoles));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof RoleKey)) {
+                return false;
+            }
+            RoleKey other = (RoleKey) o;
+            return Objects.equals(realmRoles, other.realmRoles) && Objects.equals(clientRoles, other.clientRoles);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Objects.hashCode(realmRoles) + Objects.hashCode(clientRoles);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.report.app.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.report.app.dto.ReportResponse;
+import com.report.app.service.ReportService;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Serves {@code /api/signed/reports/{reportId}} links issued by
+ * {@link SignedLinkSigner}. Runs ahead of Spring Security and answers the
+ * request itself, so a download never loads a session, decodes a token or
+ * evaluates method security.
+ */
+public class SignedDownloadFilter extends OncePerRequestFilter {
+
+    public static final String PATH_PREFIX = "/api/signed/reports/";
+
+    private final SignedLinkSigner signedLinkSigner;
+    private final ReportService reportService;
+
+    public SignedDownloadFilter(SignedLinkSigner signedLinkSigner, ReportService reportService) {
+        this.signedLinkSigner = signedLinkSigner;
+        this.reportService = reportService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!"GET".equals(request.getMethod())) {
+            response.sendError(HttpStatus.METHOD_NOT_ALLOWED.value());
+            return;
+        }
+
+        String reportId = request.getRequestURI().substring(request.getContextPath().length() + PATH_PREFIX.length());
+        String owner = request.getParameter("u");
+        String signature = request.getParameter("sig");
+        long expiresAt;
+        try {
+            expiresAt = Long.parseLong(request.getParameter("exp"));
+        } catch (NumberFormatException ex) {
+            response.sendError(HttpStatus.FORBIDDEN.value());
+            return;
+        }
+        if (reportId.isEmpty() || owner == null || signature == null
+                || !signedLinkSigner.verify(PATH_PREFIX, reportId, owner, expiresAt, signature)) {
+            response.sendError(HttpStatus.FORBIDDEN.value());
+            return;
+        }
+
+        ReportResponse report;
+        Resource resource;
+        try {
+            report = reportService.getReportById(reportId, owner);
+            resource = reportService.downloadReport(reportId, owner);
+        } catch (RuntimeException ex) {
+            response.sendError(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+
+        long maxAge = Math.max(0, expiresAt - Instant.now().getEpochSecond());
+        response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        response.setContentLengthLong(resource.contentLength());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+            "attachment; filename=\"" + report.getFileName() + "\"");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "public, max-age=" + maxAge + ", immutable");
+        try (InputStream in = resource.getInputStream()) {
+            in.transferTo(response.getOutputStream());
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.report.app.config;
+
+import java.io.OutputStream;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.stereotype.Component;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.report.app.dto.ReportRequest;
+import com.report.app.dto.ReportResponse;
+import com.report.app.service.ReportService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Runs the hot request paths on synthetic input before the app reports
+ * ready, so the first real requests do not run in the interpreter. Boot
+ * switches readiness to accepting traffic only after application runners
+ * return, so {@code /actuator/health/readiness} stays down meanwhile.
+ *
+ * Each stage repeats up to {@code app.warmup.iterations} times, and the
+ * warm-up as a whole stops once {@code app.warmup.max-seconds} have passed.
+ * A failing stage is logged and skipped; it never stops the app starting.
+ */
+@Slf4j
+@Component
+public class WarmupRunner implements ApplicationRunner {
+
+    private static final List<String> FORMATS = List.of("PDF", "EXCEL", "CSV");
+
+    /** Role sets typical of the realm: plain users, admins, and Keycloak's default roles. */
+    private static final List<List<String>> ROLE_SETS = List.of(
+        List.of("user"),
+        List.of("user", "admin"),
+        List.of("default-roles-multi-app-realm", "offline_access", "uma_authorization", "user"));
+
+    @Value("${app.warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.warmup.iterations:200}")
+    private int iterations;
+
+    @Value("${app.warmup.max-seconds:30}")
+    private long maxSeconds;
+
+    private final ReportService reportService;
+    private final RoleAuthorityMapper roleAuthorityMapper;
+    private final JsonMapper jsonMapper;
+    private final MeterRegistry meterRegistry;
+
+    public WarmupRunner(ReportService reportService, RoleAuthorityMapper roleAuthorityMapper,
+                        JsonMapper jsonMapper, MeterRegistry meterRegistry) {
+        this.reportService = reportService;
+        this.roleAuthorityMapper = roleAuthorityMapper;
+        this.jsonMapper = jsonMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled || iterations <= 0) {
+            return;
+        }
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.SECONDS.toNanos(maxSeconds);
+        Map<String, Integer> completed = new LinkedHashMap<>();
+        completed.put("reports", runStage("reports", deadline, this::reportRendering));
+        completed.put("tokens", runStage("tokens", deadline, this::tokenValidation));
+        completed.put("json", runStage("json", deadline, this::jsonBinding));
+        log.info("Warm-up finished in {} ms, iterations per stage: {}",
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), completed);
+    }
+
+    private int runStage(String stage, long deadline, StageSetup setup) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        int done = 0;
+        try {
+            Iteration iteration = setup.prepare();
+            while (done < iterations && System.nanoTime() < deadline) {
+                iteration.run(done);
+                done++;
+            }
+        } catch (Exception e) {
+            log.warn("Warm-up stage {} failed after {} iterations", stage, done, e);
+        } finally {
+            sample.stop(Timer.builder("application.warmup")
+                .description("Time spent warming up before accepting traffic")
+                .tag("stage", stage)
+                .register(meterRegistry));
+        }
+        return done;
+    }
+
+    private Iteration reportRendering() {
+        return i -> {
+            String format = FORMATS.get(i % FORMATS.size());
+            reportService.render(format, sampleRequest(format), OutputStream.nullOutputStream());
+        };
+    }
+
+    /**
+     * Signs tokens with a throwaway key and runs them through the same
+     * decoder and authority mapping as bearer requests, minus the cache.
+     */
+    private Iteration tokenValidation() throws JOSEException {
+        RSAKey key = new RSAKeyGenerator(2048).keyID("warmup").generate();
+        JwtDecoder decoder = SecurityConfig.verifyingDecoder(new ImmutableJWKSet<>(new JWKSet(key.toPublicJWK())));
+        JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
+        converter.setJwtGrantedAuthoritiesConverter(jwt -> roleAuthorityMapper.map(jwt.getClaims()));
+        JWSSigner signer = new RSASSASigner(key);
+        JWSHeader header = new JWSHeader.Builder(JWSAlgorithm.RS256)
+            .keyID(key.getKeyID())
+            .type(JOSEObjectType.JWT)
+            .build();
+        return i -> {
+            Instant now = Instant.now();
+            JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .issuer("urn:warmup")
+                .subject("warmup")
+                .jwtID(UUID.randomUUID().toString())
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plusSeconds(60)))
+                .claim("preferred_username", "warmup")
+                .claim("realm_access", Map.of("roles", ROLE_SETS.get(i % ROLE_SETS.size())))
+                .build();
+            SignedJWT token = new SignedJWT(header, claims);
+            token.sign(signer);
+            converter.convert(decoder.decode(token.serialize()));
+        };
+    }
+
+    private Iteration jsonBinding() {
+        ReportResponse response = ReportResponse.builder()
+            .id(UUID.randomUUID().toString())
+            .title("Warm-up report")
+            .description("Synthetic report")
+            .reportType("PDF")
+            .fileName("Warm_up_report_20250101_000000.pdf")
+            .createdBy("warmup")
+            .createdAt(LocalDateTime.now())
+            .fileSize(4096)
+            .build();
+        List<ReportResponse> listing = Collections.nCopies(20, response);
+        byte[] request = jsonMapper.writeValueAsBytes(sampleRequest("CSV"));
+        return i -> {
+            jsonMapper.writeValueAsBytes(listing);
+            jsonMapper.readValue(request, ReportRequest.class);
+        };
+    }
+
+    private static ReportRequest sampleRequest(String format) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        for (int row = 0; row < 25; row++) {
+            data.put("field" + row, row % 2 == 0 ? "value " + row : row * 1.5);
+        }
+        ReportRequest request = new ReportRequest();
+        request.setReportType(format);
+        request.setTitle("Warm-up report");
+        request.setDescription("Synthetic report rendered before the app reports ready");
+        request.setData(data);
+        return request;
+    }
+
+    @FunctionalInterface
+    private interface StageSetup {
+        Iteration prepare() throws Exception;
+    }
+
+    @FunctionalInterface
+    private interface Iteration {
+        void run(int index) throws Exception;
+    }
+}
@@ -0,0 +1,83 @@
+package com.report.app.controller;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.report.app.config.OidcSessionIndex;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * OpenID Connect back-channel logout endpoint. Keycloak posts a signed logout
+ * token here when a user's SSO session ends, and the matching local sessions
+ * are ended through {@link OidcSessionIndex}.
+ */
+@Slf4j
+@RestController
+public class BackChannelLogoutController {
+
+    private static final String BACK_CHANNEL_LOGOUT_EVENT = "http://schemas.openid.net/event/backchannel-logout";
+
+    @Value("${spring.security.oauth2.client.provider.keycloak.issuer-uri}")
+    private String issuer;
+
+    @Value("${spring.security.oauth2.client.registration.keycloak.client-id}")
+    private String clientId;
+
+    private final JwtDecoder jwtDecoder;
+    private final OidcSessionIndex oidcSessionIndex;
+
+    public BackChannelLogoutController(JwtDecoder jwtDecoder, OidcSessionIndex oidcSessionIndex) {
+        this.jwtDecoder = jwtDecoder;
+        this.oidcSessionIndex = oidcSessionIndex;
+    }
+
+    @PostMapping(value = "/logout/backchannel", consumes = MediaType.APPLICATION_FORM_URLENCODED_VALUE)
+    public ResponseEntity<Map<String, String>> logout(@RequestParam("logout_token") String logoutToken) {
+        try {
+            Jwt token = jwtDecoder.decode(logoutToken);
+            validate(token);
+            int ended = oidcSessionIndex.logout(token.getClaimAsString("sid"), token.getSubject());
+            log.debug("Back-channel logout for sid {} ended {} local sessions", token.getClaimAsString("sid"), ended);
+            return ResponseEntity.ok().cacheControl(CacheControl.noStore()).build();
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Rejected back-channel logout token: {}", e.getMessage());
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "invalid_request");
+            error.put("error_description", e.getMessage());
+            return ResponseEntity.badRequest().cacheControl(CacheControl.noStore()).body(error);
+        }
+    }
+
+    private void validate(Jwt token) {
+        if (!issuer.equals(token.getClaimAsString("iss"))) {
+            throw new IllegalArgumentException("Unexpected issuer");
+        }
+        List<String> audience = token.getAudience();
+        if (audience == null || !audience.contains(clientId)) {
+            throw new IllegalArgumentException("Token is not addressed to this client");
+        }
+        Map<String, Object> events = token.getClaimAsMap("events");
+        if (events == null || !events.containsKey(BACK_CHANNEL_LOGOUT_EVENT)) {
+            throw new IllegalArgumentException("Not a logout token");
+        }
+        if (token.hasClaim("nonce")) {
+            throw new IllegalArgumentException("Logout token must not carry a nonce");
+        }
+        if (token.getClaimAsString("sid") == null && token.getSubject() == null) {
+            throw new IllegalArgumentException("Logout token carries neither sid nor sub");
+        }
+    }
+}
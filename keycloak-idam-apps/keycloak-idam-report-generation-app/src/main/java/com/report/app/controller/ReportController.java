@@ -9,8 +9,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.oauth2.core.oidc.user.OidcUser;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -19,8 +18,12 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.report.app.config.CurrentUser;
+import com.report.app.config.SignedDownloadFilter;
+import com.report.app.config.SignedLinkSigner;
 import com.report.app.dto.ReportRequest;
 import com.report.app.dto.ReportResponse;
+import com.report.app.dto.SignedLinkResponse;
 import com.report.app.service.ReportService;
 
 import jakarta.validation.Valid;
@@ -31,17 +34,19 @@ import jakarta.validation.Valid;
 public class ReportController {
 
     private final ReportService reportService;
+    private final SignedLinkSigner signedLinkSigner;
 
-    public ReportController(ReportService reportService) {
+    public ReportController(ReportService reportService, SignedLinkSigner signedLinkSigner) {
         this.reportService = reportService;
+        this.signedLinkSigner = signedLinkSigner;
     }
 
     @PostMapping("/generate")
     public ResponseEntity<ReportResponse> generateReport(
             @Valid @RequestBody ReportRequest request,
-            @AuthenticationPrincipal OidcUser principal) {
+            Authentication authentication) {
         try {
-            String username = principal.getPreferredUsername();
+            String username = CurrentUser.username(authentication);
             ReportResponse response = reportService.generateReport(request, username);
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
         } catch (Exception e) {
@@ -51,8 +56,8 @@ public class ReportController {
 
     @GetMapping
     public ResponseEntity<List<ReportResponse>> getAllReports(
-            @AuthenticationPrincipal OidcUser principal) {
-        String username = principal.getPreferredUsername();
+            Authentication authentication) {
+        String username = CurrentUser.username(authentication);
         List<ReportResponse> reports = reportService.getAllReports(username);
         return ResponseEntity.ok(reports);
     }
@@ -60,9 +65,9 @@ public class ReportController {
     @GetMapping("/{reportId}")
     public ResponseEntity<ReportResponse> getReportById(
             @PathVariable String reportId,
-            @AuthenticationPrincipal OidcUser principal) {
+            Authentication authentication) {
         try {
-            String username = principal.getPreferredUsername();
+            String username = CurrentUser.username(authentication);
             ReportResponse report = reportService.getReportById(reportId, username);
             return ResponseEntity.ok(report);
         } catch (Exception e) {
@@ -73,9 +78,9 @@ public class ReportController {
     @GetMapping("/{reportId}/download")
     public ResponseEntity<Resource> downloadReport(
             @PathVariable String reportId,
-            @AuthenticationPrincipal OidcUser principal) {
+            Authentication authentication) {
         try {
-            String username = principal.getPreferredUsername();
+            String username = CurrentUser.username(authentication);
             Resource resource = reportService.downloadReport(reportId, username);
             ReportResponse report = reportService.getReportById(reportId, username);
 
@@ -89,12 +94,25 @@ public class ReportController {
         }
     }
 
+    @PostMapping("/{reportId}/link")
+    public ResponseEntity<SignedLinkResponse> createDownloadLink(
+            @PathVariable String reportId,
+            Authentication authentication) {
+        try {
+            String username = CurrentUser.username(authentication);
+            reportService.getReportById(reportId, username);
+            return ResponseEntity.ok(signedLinkSigner.issue(SignedDownloadFilter.PATH_PREFIX, reportId, username));
+        } catch (Exception e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
     @DeleteMapping("/{reportId}")
     public ResponseEntity<Void> deleteReport(
             @PathVariable String reportId,
-            @AuthenticationPrincipal OidcUser principal) {
+            Authentication authentication) {
         try {
-            String username = principal.getPreferredUsername();
+            String username = CurrentUser.username(authentication);
             reportService.deleteReport(reportId, username);
             return ResponseEntity.noContent().build();
         } catch (Exception e) {
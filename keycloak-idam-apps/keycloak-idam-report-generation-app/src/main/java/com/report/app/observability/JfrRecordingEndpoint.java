@@ -0,0 +1,211 @@
+package com.report.app.observability;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.OptionalParameter;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@code /actuator/jfr}: starts, lists, dumps and stops Flight Recorder
+ * recordings. Recordings are bounded in length, retained age and size, and
+ * only a few may be held at once, so a forgotten recording cannot fill the disk.
+ *
+ * A recording that reached its duration stays available for dumping for
+ * {@code app.jfr.max-age-minutes} after it stopped, and still counts towards
+ * {@code app.jfr.max-recordings} until then. After that it is closed, which
+ * removes its data from the disk repository.
+ */
+@Slf4j
+@Component
+@WebEndpoint(id = "jfr")
+public class JfrRecordingEndpoint implements DisposableBean {
+
+    @Value("${app.jfr.max-duration-minutes:30}")
+    private long maxDurationMinutes;
+
+    @Value("${app.jfr.max-age-minutes:30}")
+    private long maxAgeMinutes;
+
+    @Value("${app.jfr.max-size-mb:200}")
+    private long maxSizeMb;
+
+    @Value("${app.jfr.max-recordings:2}")
+    private int maxRecordings;
+
+    private final Map<Long, Recording> recordings = new ConcurrentHashMap<>();
+
+    @ReadOperation
+    public List<Map<String, Object>> recordings() {
+        closeExpired();
+        List<Map<String, Object>> result = new ArrayList<>();
+        recordings.values().forEach(recording -> result.add(describe(recording)));
+        return result;
+    }
+
+    /**
+     * @param settings {@code default} (about 1% overhead) or {@code profile}
+     * @param durationSeconds how long to record, capped by {@code app.jfr.max-duration-minutes}
+     */
+    @WriteOperation
+    public synchronized Map<String, Object> start(@OptionalParameter String settings,
+                                                  @OptionalParameter Long durationSeconds) {
+        closeExpired();
+        if (recordings.size() >= maxRecordings) {
+            throw new InvalidEndpointRequestException("Too many recordings held",
+                recordings.size() + " recordings are held; delete one first");
+        }
+
+        String configurationName = settings == null ? "default" : settings;
+        if (!"default".equals(configurationName) && !"profile".equals(configurationName)) {
+            throw new InvalidEndpointRequestException("Unknown settings " + configurationName,
+                "settings must be 'default' or 'profile'");
+        }
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(configurationName);
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("Could not load JFR settings " + configurationName, e);
+        }
+
+        Duration maxDuration = Duration.ofMinutes(maxDurationMinutes);
+        Duration duration = durationSeconds == null || durationSeconds <= 0
+            ? maxDuration
+            : Duration.ofSeconds(Math.min(durationSeconds, maxDuration.toSeconds()));
+
+        Recording recording = new Recording(configuration);
+        recording.setName("actuator-" + configurationName);
+        recording.setToDisk(true);
+        recording.setDuration(duration);
+        recording.setMaxAge(Duration.ofMinutes(maxAgeMinutes));
+        recording.setMaxSize(maxSizeMb * 1024 * 1024);
+        recording.start();
+        recordings.put(recording.getId(), recording);
+        log.info("Started JFR recording {} ({}, {})", recording.getId(), configurationName, duration);
+        return describe(recording);
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> dump(@Selector long id) throws IOException {
+        Recording recording = recordings.get(id);
+        if (recording == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        Path file = Files.createTempFile("recording-" + id + "-", ".jfr");
+        try {
+            recording.dump(file);
+        } catch (IOException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return new WebEndpointResponse<>(new TemporaryRecordingFile(file), WebEndpointResponse.STATUS_OK);
+    }
+
+    @DeleteOperation
+    public Map<String, Object> stop(@Selector long id) {
+        Recording recording = recordings.remove(id);
+        if (recording == null) {
+            return null;
+        }
+        Map<String, Object> description = describe(recording);
+        recording.close();
+        log.info("Closed JFR recording {}", id);
+        return description;
+    }
+
+    /**
+     * Closes recordings that stopped more than {@code max-age-minutes} ago, or
+     * were closed by other means.
+     */
+    private void closeExpired() {
+        Instant cutoff = Instant.now().minus(Duration.ofMinutes(maxAgeMinutes));
+        recordings.values().removeIf(recording -> {
+            RecordingState state = recording.getState();
+            if (state == RecordingState.CLOSED) {
+                return true;
+            }
+            if (state == RecordingState.STOPPED && recording.getStopTime().isBefore(cutoff)) {
+                recording.close();
+                log.info("Closed JFR recording {} that stopped at {}", recording.getId(), recording.getStopTime());
+                return true;
+            }
+            return false;
+        });
+    }
+
+    @Override
+    public void destroy() {
+        recordings.values().forEach(Recording::close);
+        recordings.clear();
+    }
+
+    private static Map<String, Object> describe(Recording recording) {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("id", recording.getId());
+        description.put("name", recording.getName());
+        description.put("state", recording.getState());
+        description.put("startTime", recording.getStartTime());
+        description.put("stopTime", recording.getStopTime());
+        description.put("duration", recording.getDuration());
+        description.put("maxAge", recording.getMaxAge());
+        description.put("maxSize", recording.getMaxSize());
+        description.put("size", recording.getSize());
+        return description;
+    }
+
+    /**
+     * Dump file that is deleted once it has been streamed to the client.
+     */
+    private static final class TemporaryRecordingFile extends FileSystemResource {
+
+        TemporaryRecordingFile(Path path) {
+            super(path);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return new FilterInputStream(super.getInputStream()) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        Files.deleteIfExists(getFile().toPath());
+                    }
+                }
+            };
+        }
+
+        @Override
+        public boolean isFile() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.report.app.observability;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.report.app.ReportRender")
+@Label("Report Render")
+@Category({"Keycloak IDAM", "Reports"})
+@StackTrace(false)
+public class ReportRenderEvent extends Event {
+
+    @Label("Format")
+    public String format;
+
+    @Label("Rows")
+    public int rows;
+
+    @Label("Output Size")
+    @DataAmount
+    public long bytes;
+
+    @Label("Outcome")
+    public String outcome;
+}
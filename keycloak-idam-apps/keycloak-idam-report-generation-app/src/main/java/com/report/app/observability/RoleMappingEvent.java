@@ -0,0 +1,29 @@
+package com.report.app.observability;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.report.app.RoleMapping")
+@Label("Role Mapping")
+@Category({"Keycloak IDAM", "Security"})
+@StackTrace(false)
+public class RoleMappingEvent extends Event {
+
+    @Label("Principal")
+    public String principal;
+
+    @Label("Realm Roles")
+    public int realmRoles;
+
+    @Label("Client Roles")
+    public int clientRoles;
+
+    @Label("Authorities")
+    public int authorities;
+
+    @Label("Cache Hit")
+    public boolean cacheHit;
+}
@@ -0,0 +1,41 @@
+package com.report.app.observability;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ServerTimingConfig {
+
+    /**
+     * Spring Security's filter chain is registered at order -100; timing
+     * starts ahead of it and of any filter answering requests before it.
+     */
+    private static final int SERVER_TIMING_FILTER_ORDER = -110;
+    private static final int AUTHENTICATED_MARKER_ORDER = -99;
+
+    @Value("${app.observability.server-timing:true}")
+    private boolean serverTiming;
+
+    @Value("${app.observability.access-log:true}")
+    private boolean accessLog;
+
+    @Bean
+    public FilterRegistrationBean<ServerTimingFilter> serverTimingFilter() {
+        FilterRegistrationBean<ServerTimingFilter> registration =
+            new FilterRegistrationBean<>(new ServerTimingFilter(serverTiming, accessLog));
+        registration.setOrder(SERVER_TIMING_FILTER_ORDER);
+        registration.setEnabled(serverTiming || accessLog);
+        return registration;
+    }
+
+    @Bean
+    public FilterRegistrationBean<ServerTimingFilter.AuthenticatedMarker> authenticatedMarker() {
+        FilterRegistrationBean<ServerTimingFilter.AuthenticatedMarker> registration =
+            new FilterRegistrationBean<>(new ServerTimingFilter.AuthenticatedMarker());
+        registration.setOrder(AUTHENTICATED_MARKER_ORDER);
+        registration.setEnabled(serverTiming || accessLog);
+        return registration;
+    }
+}
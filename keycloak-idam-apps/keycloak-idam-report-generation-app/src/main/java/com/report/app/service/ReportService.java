@@ -2,9 +2,11 @@ package com.report.app.service;
 
 
 
-import java.io.FileOutputStream;
-import java.io.FileWriter;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -14,6 +16,7 @@ import java.util.Comparator;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
 import java.util.stream.Collectors;
 
 import org.apache.poi.ss.usermodel.Cell;
@@ -22,6 +25,7 @@ import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
@@ -39,6 +43,16 @@ import com.opencsv.CSVWriter;
 import com.report.app.dto.ReportRequest;
 import com.report.app.dto.ReportResponse;
 import com.report.app.model.ReportData;
+import com.report.app.observability.ReportRenderEvent;
+import com.report.app.observability.RequestTimings;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import jakarta.annotation.PostConstruct;
 
 @Service
 public class ReportService {
@@ -46,7 +60,37 @@ public class ReportService {
     @Value("${app.reports.storage-path}")
     private String storagePath;
 
+    @Value("${app.reports.max-concurrent-renders:0}")
+    private int maxConcurrentRenders;
+
     private final Map<String, ReportData> reportStore = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final Meter.MeterProvider<Timer> renderTimer;
+    private final Meter.MeterProvider<DistributionSummary> outputSize;
+    private final Tracer tracer;
+    private Semaphore renderPermits;
+
+    public ReportService(MeterRegistry meterRegistry, ObjectProvider<Tracer> tracer) {
+        this.meterRegistry = meterRegistry;
+        this.tracer = tracer.getIfAvailable(() -> Tracer.NOOP);
+        this.renderTimer = Timer.builder("reports.render")
+            .description("Time to render a report file")
+            .publishPercentileHistogram()
+            .withRegistry(meterRegistry);
+        this.outputSize = DistributionSummary.builder("reports.output.size")
+            .description("Size of rendered report files")
+            .baseUnit("bytes")
+            .publishPercentileHistogram()
+            .withRegistry(meterRegistry);
+    }
+
+    @PostConstruct
+    public void init() {
+        // By default one CPU is left for request handling and I/O while renders run
+        this.renderPermits = new Semaphore(maxConcurrentRenders > 0
+            ? maxConcurrentRenders
+            : Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+    }
 
     public ReportResponse generateReport(ReportRequest request, String username) throws Exception {
         String reportId = UUID.randomUUID().toString();
@@ -57,21 +101,46 @@ public class ReportService {
         Files.createDirectories(filePath.getParent());
 
         // Generate report based on type
-        switch (request.getReportType().toUpperCase()) {
-            case "PDF":
-                generatePDF(filePath, request);
-                break;
-            case "EXCEL":
-                generateExcel(filePath, request);
-                break;
-            case "CSV":
-                generateCSV(filePath, request);
-                break;
-            default:
-                throw new IllegalArgumentException("Unsupported report type: " + request.getReportType());
+        String format = request.getReportType().toUpperCase();
+        // Rendering is CPU-bound and iText/POI hold monitors while writing, which pins the
+        // virtual thread, so renders are capped to keep carriers free for I/O-bound requests
+        renderPermits.acquire();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long span = RequestTimings.start(RequestTimings.Span.RENDER);
+        ReportRenderEvent event = new ReportRenderEvent();
+        event.begin();
+        Span traceSpan = tracer.nextSpan().name("report render")
+            .tag("report.format", knownFormat(format))
+            .tag("report.rows", String.valueOf(request.getData() == null ? 0 : request.getData().size()))
+            .start();
+        String outcome = "error";
+        try (Tracer.SpanInScope scope = tracer.withSpan(traceSpan);
+             OutputStream out = new BufferedOutputStream(Files.newOutputStream(filePath))) {
+            render(format, request, out);
+            outcome = "success";
+        } catch (Exception e) {
+            traceSpan.error(e);
+            // Leave no empty or partial file behind
+            try {
+                Files.deleteIfExists(filePath);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        } finally {
+            renderPermits.release();
+            traceSpan.end();
+            RequestTimings.stop(RequestTimings.Span.RENDER, span);
+            sample.stop(renderTimer.withTags("format", knownFormat(format), "outcome", outcome));
+            event.end();
+            if (!"success".equals(outcome)) {
+                commitRenderEvent(event, format, request, 0L, outcome);
+            }
         }
 
         long fileSize = Files.size(filePath);
+        outputSize.withTags("format", format).record(fileSize);
+        commitRenderEvent(event, format, request, fileSize, outcome);
 
         // Store report data
         ReportData reportData = ReportData.builder()
@@ -135,9 +204,31 @@ public class ReportService {
         reportStore.remove(reportId);
     }
 
-    private void generatePDF(Path filePath, ReportRequest request) throws DocumentException, IOException {
+    /**
+     * Renders a report without storing it or recording metrics; also used to
+     * warm up the renderers before the app reports ready.
+     *
+     * @param format {@code PDF}, {@code EXCEL} or {@code CSV}
+     */
+    public void render(String format, ReportRequest request, OutputStream out) throws Exception {
+        switch (format) {
+            case "PDF":
+                generatePDF(out, request);
+                break;
+            case "EXCEL":
+                generateExcel(out, request);
+                break;
+            case "CSV":
+                generateCSV(out, request);
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported report type: " + request.getReportType());
+        }
+    }
+
+    private void generatePDF(OutputStream out, ReportRequest request) throws DocumentException, IOException {
         Document document = new Document();
-        PdfWriter.getInstance(document, new FileOutputStream(filePath.toFile()));
+        PdfWriter.getInstance(document, out);
         document.open();
 
         // Title
@@ -179,7 +270,7 @@ public class ReportService {
         document.close();
     }
 
-    private void generateExcel(Path filePath, ReportRequest request) throws IOException {
+    private void generateExcel(OutputStream out, ReportRequest request) throws IOException {
         Workbook workbook = new XSSFWorkbook();
         Sheet sheet = workbook.createSheet(request.getTitle());
 
@@ -232,15 +323,12 @@ public class ReportService {
         sheet.autoSizeColumn(0);
         sheet.autoSizeColumn(1);
 
-        // Write to file
-        try (FileOutputStream outputStream = new FileOutputStream(filePath.toFile())) {
-            workbook.write(outputStream);
-        }
+        workbook.write(out);
         workbook.close();
     }
 
-    private void generateCSV(Path filePath, ReportRequest request) throws IOException {
-        try (CSVWriter writer = new CSVWriter(new FileWriter(filePath.toFile()))) {
+    private void generateCSV(OutputStream out, ReportRequest request) throws IOException {
+        try (CSVWriter writer = new CSVWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8))) {
             // Title
             writer.writeNext(new String[]{request.getTitle()});
             writer.writeNext(new String[]{""});
@@ -274,6 +362,31 @@ public class ReportService {
         return String.format("%s_%s%s", sanitizedTitle, timestamp, extension);
     }
 
+    private static void commitRenderEvent(ReportRenderEvent event, String format, ReportRequest request,
+                                          long bytes, String outcome) {
+        if (event.shouldCommit()) {
+            event.format = format;
+            event.rows = request.getData() == null ? 0 : request.getData().size();
+            event.bytes = bytes;
+            event.outcome = outcome;
+            event.commit();
+        }
+    }
+
+    /**
+     * Keeps the format tag bounded when clients send unsupported types.
+     */
+    private static String knownFormat(String format) {
+        switch (format) {
+            case "PDF":
+            case "EXCEL":
+            case "CSV":
+                return format;
+            default:
+                return "OTHER";
+        }
+    }
+
     private String getFileExtension(String type) {
         switch (type.toUpperCase()) {
             case "PDF": return ".pdf";
@@ -0,0 +1,183 @@
+package com.report.app.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.authorization.method.PreAuthorizeAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.util.SimpleMethodInvocation;
+
+/**
+ * The precompiled manager must grant and deny exactly as the SpEL-based
+ * {@link PreAuthorizeAuthorizationManager} does, for every expression form it
+ * compiles and for those it hands back to SpEL.
+ */
+class PrecompiledPreAuthorizeManagerTest {
+
+    // Interned first, so they are guaranteed a bit position
+    private static final List<String> INDEXED = List.of(
+        "ROLE_ADMIN", "ROLE_admin", "ADMIN", "ROLE_user", "ROLE_report_user", "ROLE_file_user", "SCOPE_files", "a,b");
+
+    // Only ever interned after every bit position is taken, so they have none
+    private static final String OVERFLOW_ROLE = "precompiled_test_overflow";
+    private static final String OVERFLOW_AUTHORITY = "SCOPE_precompiled_test_overflow";
+
+    private final PreAuthorizeAuthorizationManager spel = new PreAuthorizeAuthorizationManager();
+    private final PrecompiledPreAuthorizeManager precompiled = new PrecompiledPreAuthorizeManager("ROLE_", true);
+
+    @BeforeAll
+    static void exhaustIndexedBits() {
+        INDEXED.forEach(name -> assertThat(IndexedAuthority.of(name).bit()).as(name).isNotZero());
+        for (int i = 0; IndexedAuthority.of("precompiled_test_filler_" + i).bit() != 0L; i++) {
+            // Interning fillers until the JVM has handed out all of its bit positions
+        }
+        assertThat(IndexedAuthority.of("ROLE_" + OVERFLOW_ROLE).bit()).isZero();
+        assertThat(IndexedAuthority.of(OVERFLOW_AUTHORITY).bit()).isZero();
+    }
+
+    @Test
+    void decidesLikeSpelForEveryExpressionAndCaller() throws Exception {
+        List<Authentication> callers = callers();
+        List<MethodInvocation> invocations = new ArrayList<>();
+        for (Method method : Controller.class.getDeclaredMethods()) {
+            if (method.isAnnotationPresent(PreAuthorize.class)) {
+                invocations.add(new SimpleMethodInvocation(new Controller(), method));
+            }
+        }
+        invocations.add(new SimpleMethodInvocation(new ClassLevelController(),
+            ClassLevelController.class.getMethod("list")));
+
+        for (MethodInvocation invocation : invocations) {
+            for (Authentication caller : callers) {
+                // Twice, so both the compiling and the cached path are compared
+                for (int pass = 0; pass < 2; pass++) {
+                    boolean expected = spel.authorize(() -> caller, invocation).isGranted();
+                    boolean actual = precompiled.authorize(() -> caller, invocation).isGranted();
+                    assertThat(actual)
+                        .as(invocation.getMethod().getName() + " for " + caller.getAuthorities())
+                        .isEqualTo(expected);
+                }
+            }
+        }
+    }
+
+    @Test
+    void grantsAndDeniesSimpleRoleChecks() throws Exception {
+        MethodInvocation admin = new SimpleMethodInvocation(new Controller(), Controller.class.getMethod("hasRoleAdmin"));
+        assertThat(precompiled.authorize(() -> caller("ROLE_ADMIN"), admin).isGranted()).isTrue();
+        assertThat(precompiled.authorize(() -> caller("ROLE_admin"), admin).isGranted()).isFalse();
+        assertThat(precompiled.authorize(() -> caller("ADMIN"), admin).isGranted()).isFalse();
+        assertThat(precompiled.authorize(() -> caller(), admin).isGranted()).isFalse();
+    }
+
+    @Test
+    void rolesWithoutBitPositionFallBackToSpel() throws Exception {
+        MethodInvocation overflow = new SimpleMethodInvocation(new Controller(),
+            Controller.class.getMethod("hasRoleBeyondIndex"));
+        assertThat(precompiled.authorize(() -> caller("ROLE_" + OVERFLOW_ROLE), overflow).isGranted()).isTrue();
+        assertThat(precompiled.authorize(() -> caller("ROLE_ADMIN"), overflow).isGranted()).isFalse();
+
+        MethodInvocation mixed = new SimpleMethodInvocation(new Controller(),
+            Controller.class.getMethod("hasAnyAuthorityBeyondIndex"));
+        assertThat(precompiled.authorize(() -> caller(OVERFLOW_AUTHORITY), mixed).isGranted()).isTrue();
+        assertThat(precompiled.authorize(() -> caller("ROLE_file_user"), mixed).isGranted()).isTrue();
+        assertThat(precompiled.authorize(() -> caller("ROLE_user"), mixed).isGranted()).isFalse();
+    }
+
+    @Test
+    void leavesCallersOtherAuthoritiesUninterned() throws Exception {
+        MethodInvocation admin = new SimpleMethodInvocation(new Controller(), Controller.class.getMethod("hasRoleAdmin"));
+        int interned = IndexedAuthority.internedCount();
+
+        for (int i = 0; i < 100; i++) {
+            Authentication caller = caller("ROLE_ADMIN", "SCOPE_uninterned_" + i, "FACTOR_uninterned_" + i);
+            assertThat(precompiled.authorize(() -> caller, admin).isGranted()).isTrue();
+        }
+
+        assertThat(IndexedAuthority.internedCount()).isEqualTo(interned);
+    }
+
+    private static List<Authentication> callers() {
+        List<Authentication> callers = new ArrayList<>();
+        callers.add(caller());
+        callers.add(caller("ROLE_ADMIN"));
+        callers.add(caller("ROLE_admin"));
+        callers.add(caller("ADMIN"));
+        callers.add(caller("ROLE_user"));
+        callers.add(caller("ROLE_user", "ROLE_admin"));
+        callers.add(caller("ROLE_report_user"));
+        callers.add(caller("ROLE_file_user", "SCOPE_files"));
+        callers.add(caller("SCOPE_files"));
+        callers.add(caller("a,b"));
+        callers.add(caller("ROLE_" + OVERFLOW_ROLE));
+        callers.add(caller(OVERFLOW_AUTHORITY, "ROLE_user"));
+        // Interned authorities, as RoleAuthorityMapper hands them out
+        callers.add(new TestingAuthenticationToken("indexed", null,
+            List.of(IndexedAuthority.of("ROLE_ADMIN"), IndexedAuthority.of("ROLE_report_user"))));
+        return callers;
+    }
+
+    private static Authentication caller(String... authorities) {
+        List<GrantedAuthority> granted = new ArrayList<>();
+        for (String authority : authorities) {
+            granted.add(new SimpleGrantedAuthority(authority));
+        }
+        return new TestingAuthenticationToken("user", null, granted);
+    }
+
+    static class Controller {
+
+        @PreAuthorize("hasRole('ADMIN')")
+        public void hasRoleAdmin() {
+        }
+
+        @PreAuthorize("hasRole('ROLE_ADMIN')")
+        public void hasRoleWithPrefix() {
+        }
+
+        @PreAuthorize("hasAnyRole('report_user', 'admin')")
+        public void hasAnyRole() {
+        }
+
+        @PreAuthorize("hasAuthority('SCOPE_files')")
+        public void hasAuthority() {
+        }
+
+        @PreAuthorize("  hasAnyAuthority( 'ROLE_file_user','SCOPE_files' ) ")
+        public void hasAnyAuthority() {
+        }
+
+        @PreAuthorize("hasAuthority('a,b')")
+        public void hasAuthorityWithComma() {
+        }
+
+        @PreAuthorize("hasRole('user') and hasRole('admin')")
+        public void compoundExpression() {
+        }
+
+        @PreAuthorize("hasRole('" + OVERFLOW_ROLE + "')")
+        public void hasRoleBeyondIndex() {
+        }
+
+        @PreAuthorize("hasAnyAuthority('ROLE_file_user', '" + OVERFLOW_AUTHORITY + "')")
+        public void hasAnyAuthorityBeyondIndex() {
+        }
+    }
+
+    @PreAuthorize("hasRole('report_user')")
+    static class ClassLevelController {
+
+        public void list() {
+        }
+    }
+}
@@ -28,6 +28,7 @@ export const reportApi = {
   getReportById: (id) => api.get(`/reports/${id}`),
   downloadReport: (id) => api.get(`/reports/${id}/download`, { responseType: 'blob' }),
   deleteReport: (id) => api.delete(`/reports/${id}`),
+  createDownloadLink: (id) => api.post(`/reports/${id}/link`),
 };
 
 export default api;
\ No newline at end of file
@@ -0,0 +1,105 @@
+#!/usr/bin/env bash
+#
+# Measures time to first request and resident memory of one app in each
+# startup mode that has been built:
+#
+#   jvm     plain executable jar                      mvn package
+#   aot     same jar with Spring AOT initializers      mvn -Pcds package
+#   cds     extracted jar + AppCDS archive + AOT       mvn -Pcds package
+#   native  GraalVM native executable                 mvn -Pnative native:compile
+#
+# Keycloak must be running: the apps fetch the realm's OIDC discovery
+# document while starting.
+#
+# Usage: scripts/startup-bench.sh <app-dir> [mode...]
+#   RUNS=5 scripts/startup-bench.sh keycloak-idam-report-generation-app
+#   scripts/startup-bench.sh keycloak-idam-landing-app jvm cds
+#
+# Time to first request runs from process launch to the first successful
+# response from /actuator/health/readiness, which includes the JIT warm-up
+# (set APP_WARMUP_ENABLED=false to leave it out). RSS is read from /proc after
+# that response. Each figure is the median of RUNS runs.
+
+set -euo pipefail
+
+APP_DIR=${1:?usage: $0 <app-dir> [jvm|aot|cds|native...]}
+shift
+MODES=("$@")
+if [ ${#MODES[@]} -eq 0 ]; then
+    MODES=(jvm aot cds native)
+fi
+RUNS=${RUNS:-5}
+TIMEOUT_SECONDS=${TIMEOUT_SECONDS:-120}
+
+APP_DIR=$(cd "$APP_DIR" && pwd)
+TARGET="$APP_DIR/target"
+PORT=$(grep -m1 -E '^\s+port:' "$APP_DIR/src/main/resources/application.yaml" | awk '{print $2}')
+URL="http://localhost:$PORT/actuator/health/readiness"
+ARTIFACT=$(basename "$APP_DIR")
+JAR=$(ls "$TARGET"/*.jar 2>/dev/null | grep -v '\.original$' | head -1 || true)
+LOG=$(mktemp)
+trap 'rm -f "$LOG"' EXIT
+
+command_for() {
+    case "$1" in
+        jvm)    [ -n "$JAR" ] && echo "java -jar $JAR" ;;
+        aot)    [ -d "$TARGET/spring-aot" ] && [ -n "$JAR" ] && echo "java -Dspring.aot.enabled=true -jar $JAR" ;;
+        cds)    [ -f "$TARGET/cds/application.jsa" ] \
+                    && echo "java -XX:SharedArchiveFile=$TARGET/cds/application.jsa -Dspring.aot.enabled=true -jar $TARGET/cds/$(basename "$JAR")" ;;
+        native) [ -x "$TARGET/$ARTIFACT" ] && echo "$TARGET/$ARTIFACT" ;;
+    esac
+}
+
+median() {
+    sort -n | awk '{ v[NR] = $1 } END { print (NR % 2) ? v[(NR + 1) / 2] : (v[NR / 2] + v[NR / 2 + 1]) / 2 }'
+}
+
+# Prints "<ms to first request> <rss kB>" for one launch.
+run_once() {
+    local command=$1
+    local start now pid rss
+    start=$(date +%s%N)
+    $command >"$LOG" 2>&1 &
+    pid=$!
+    until curl -fs -o /dev/null "$URL"; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "process exited before serving a request; last log lines:" >&2
+            tail -20 "$LOG" >&2
+            return 1
+        fi
+        now=$(date +%s%N)
+        if [ $(( (now - start) / 1000000000 )) -ge "$TIMEOUT_SECONDS" ]; then
+            echo "no response within ${TIMEOUT_SECONDS}s" >&2
+            kill "$pid"
+            wait "$pid" 2>/dev/null || true
+            return 1
+        fi
+        sleep 0.02
+    done
+    now=$(date +%s%N)
+    rss=$(awk '/^VmRSS:/ { print $2 }' "/proc/$pid/status")
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    echo "$(( (now - start) / 1000000 )) $rss"
+}
+
+if curl -fs -o /dev/null "$URL"; then
+    echo "port $PORT is already serving requests; stop the running app first" >&2
+    exit 1
+fi
+
+printf '%-8s %22s %12s\n' mode time-to-first-request rss
+for mode in "${MODES[@]}"; do
+    command=$(command_for "$mode" || true)
+    if [ -z "$command" ]; then
+        printf '%-8s %s\n' "$mode" "not built"
+        continue
+    fi
+    results=()
+    for _ in $(seq "$RUNS"); do
+        results+=("$(run_once "$command")")
+    done
+    ttfr=$(printf '%s\n' "${results[@]}" | awk '{ print $1 }' | median)
+    rss=$(printf '%s\n' "${results[@]}" | awk '{ print $2 }' | median)
+    printf '%-8s %19s ms %9s MB\n' "$mode" "$ttfr" "$(( ${rss%.*} / 1024 ))"
+done